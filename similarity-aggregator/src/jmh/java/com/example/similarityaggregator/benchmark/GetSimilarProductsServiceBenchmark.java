@@ -0,0 +1,105 @@
+package com.example.similarityaggregator.benchmark;
+
+import com.example.similarityaggregator.application.port.out.ProductDetailPort;
+import com.example.similarityaggregator.application.port.out.SimilarProductIdsPort;
+import com.example.similarityaggregator.application.service.GetSimilarProductsService;
+import com.example.similarityaggregator.domain.exception.ProductNotFoundException;
+import com.example.similarityaggregator.domain.model.Product;
+import com.example.similarityaggregator.infrastructure.coalescing.CoalescingConfig;
+import com.example.similarityaggregator.infrastructure.rest.adapter.out.ProductDetailRestAdapter;
+import com.example.similarityaggregator.infrastructure.rest.config.SimilarProductsApiProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Aggregation overhead of {@link GetSimilarProductsService#getSimilarProducts} with in-memory ports,
+ * so only the orchestration itself is measured. {@code decoratedCacheHit} goes through the port
+ * decorators of {@link CoalescingConfig} with micro-batching on and every product cached, so a
+ * decorator that makes cache hits wait shows up there.
+ */
+@State(Scope.Benchmark)
+public class GetSimilarProductsServiceBenchmark {
+
+    private static final String PRODUCT_ID = "1";
+    private static final int SIMILAR_PRODUCTS = 5;
+
+    private GetSimilarProductsService cacheHit;
+    private GetSimilarProductsService mixedHitMiss;
+    private GetSimilarProductsService notFound;
+    private GetSimilarProductsService decoratedCacheHit;
+
+    @Setup
+    public void setUp() {
+        List<String> similarIds = IntStream.rangeClosed(2, SIMILAR_PRODUCTS + 1)
+                .mapToObj(String::valueOf)
+                .toList();
+        Map<String, Product> products = similarIds.stream()
+                .collect(Collectors.toMap(Function.identity(),
+                        id -> new Product(id, "Product " + id, new BigDecimal("19.99"), true)));
+        SimilarProductIdsPort similarIdsPort = productId -> Mono.just(similarIds);
+
+        cacheHit = service(similarIdsPort, productId -> Mono.just(products.get(productId)));
+
+        // Every other product takes a thread hop, as a cache miss answered by the upstream would
+        mixedHitMiss = service(similarIdsPort, productId -> Integer.parseInt(productId) % 2 == 0
+                ? Mono.just(products.get(productId))
+                : Mono.fromSupplier(() -> products.get(productId)).subscribeOn(Schedulers.parallel()));
+
+        notFound = service(similarIdsPort, productId -> Mono.error(new ProductNotFoundException(productId)));
+
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setAsyncCacheMode(true);
+        Cache productDetailCache = cacheManager.getCache(ProductDetailRestAdapter.CACHE_NAME);
+        products.forEach(productDetailCache::put);
+        SimilarProductsApiProperties properties = new SimilarProductsApiProperties("http://localhost",
+                Duration.ofSeconds(2), null, null,
+                new SimilarProductsApiProperties.Batching(true, Duration.ofMillis(2), 100), null, null, null);
+        CoalescingConfig coalescing = new CoalescingConfig();
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        decoratedCacheHit = service(
+                coalescing.coalescingSimilarProductIdsPort(similarIdsPort, meterRegistry),
+                coalescing.coalescingProductDetailPort(productId -> Mono.just(products.get(productId)),
+                        cacheManager, properties, meterRegistry));
+    }
+
+    @Benchmark
+    public List<Product> cacheHit() {
+        return cacheHit.getSimilarProducts(PRODUCT_ID).block();
+    }
+
+    @Benchmark
+    public List<Product> mixedHitMiss() {
+        return mixedHitMiss.getSimilarProducts(PRODUCT_ID).block();
+    }
+
+    @Benchmark
+    public List<Product> notFound() {
+        return notFound.getSimilarProducts(PRODUCT_ID).block();
+    }
+
+    @Benchmark
+    public List<Product> decoratedCacheHit() {
+        return decoratedCacheHit.getSimilarProducts(PRODUCT_ID).block();
+    }
+
+    private static GetSimilarProductsService service(SimilarProductIdsPort similarIdsPort,
+                                                     ProductDetailPort productDetailPort) {
+        return new GetSimilarProductsService(similarIdsPort, productDetailPort, Duration.ofSeconds(2), 10);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.similarityaggregator.benchmark;
+
+import com.example.similarityaggregator.domain.model.Product;
+import com.example.similarityaggregator.infrastructure.rest.adapter.in.dto.ProductResponse;
+import com.example.similarityaggregator.infrastructure.rest.adapter.out.dto.ProductDetailResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Both ends of the JSON work per request: encoding the similar products answer and decoding an
+ * upstream product detail.
+ */
+@State(Scope.Benchmark)
+public class JsonCodecBenchmark {
+
+    private JsonMapper jsonMapper;
+    private List<Product> products;
+    private byte[] productDetail;
+
+    @Setup
+    public void setUp() {
+        jsonMapper = JsonMapper.builder().build();
+        products = IntStream.rangeClosed(2, 6)
+                .mapToObj(id -> new Product(String.valueOf(id), "Product " + id, new BigDecimal("19.99"), true))
+                .toList();
+        productDetail = """
+                {"id":"2","name":"Dress","price":19.99,"availability":true}
+                """.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] encodeSimilarProducts() {
+        return jsonMapper.writeValueAsBytes(products.stream()
+                .map(ProductResponse::fromDomain)
+                .toList());
+    }
+
+    @Benchmark
+    public Product decodeProductDetail() {
+        return jsonMapper.readValue(productDetail, ProductDetailResponse.class).toDomain();
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.similarityaggregator.loadtest;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The aggregator started from a jar in a JVM of its own, the way an autoscaled instance starts, and
+ * pointed at a {@link SimuladoStandIn}.
+ */
+final class AggregatorProcess implements AutoCloseable {
+
+    private static final String JAVA = ProcessHandle.current().info().command().orElse("java");
+    private static final HttpClient CLIENT = HttpClient.newHttpClient();
+
+    private final Process process;
+    private final long startedAt;
+    private final int port;
+
+    private AggregatorProcess(Process process, long startedAt, int port) {
+        this.process = process;
+        this.startedAt = startedAt;
+        this.port = port;
+    }
+
+    static AggregatorProcess start(Path jar, List<String> jvmOptions, String upstreamBaseUrl, Path log)
+            throws IOException {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(JAVA);
+        command.addAll(jvmOptions);
+        command.addAll(List.of("-jar", jar.toString(),
+                "--server.port=" + port,
+                "--similar-products.api.base-url=" + upstreamBaseUrl,
+                "--similar-products.cache.warmup.enabled=false",
+                "--spring.main.banner-mode=off"));
+
+        long startedAt = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        return new AggregatorProcess(process, startedAt, port);
+    }
+
+    /**
+     * Polls {@code path} until it answers 200, and returns the time since the JVM was launched.
+     */
+    Duration awaitFirstResponse(String path, Duration timeout) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri(path)).timeout(Duration.ofSeconds(5)).GET().build();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Aggregator exited with code " + process.exitValue());
+            }
+            try {
+                if (CLIENT.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return Duration.ofNanos(System.nanoTime() - startedAt);
+                }
+            } catch (ConnectException e) {
+                // Not listening yet
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("No response from the aggregator within " + timeout);
+    }
+
+    int get(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri(path)).timeout(Duration.ofSeconds(30)).GET().build();
+        return CLIENT.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    /**
+     * Stops the JVM the way an orchestrator does (SIGTERM), so it shuts down gracefully and writes
+     * anything it dumps at exit, such as a CDS archive.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(60, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.similarityaggregator.loadtest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Starts the extracted, AOT-processed aggregator with {@code -XX:ArchiveClassesAtExit}, sends it the
+ * requests of every k6 phase against the simulado stand-ins, and stops it gracefully. The classes
+ * loaded on the way, for startup and for serving, end up in the CDS archive.
+ */
+public final class CdsTrainingRun {
+
+    static final List<String> TRAINING_PATHS = List.of(
+            "/product/1/similar", "/product/4/similar", "/product/5/similar",
+            "/product/2/similar", "/product/3/similar");
+
+    private static final int REQUESTS_PER_PATH = 20;
+
+    private CdsTrainingRun() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path appJar = Path.of(System.getProperty("startup.appJar"));
+        Path archive = Path.of(System.getProperty("startup.cdsArchive"));
+        Path mocksFile = Path.of(System.getProperty("startup.mocksFile"));
+        Files.deleteIfExists(archive);
+
+        try (SimuladoStandIn upstream = SimuladoStandIn.start(mocksFile);
+             AggregatorProcess aggregator = AggregatorProcess.start(appJar,
+                     List.of("-XX:ArchiveClassesAtExit=" + archive, "-Dspring.aot.enabled=true"),
+                     upstream.baseUrl(), archive.resolveSibling("training.log"))) {
+            Duration startup = aggregator.awaitFirstResponse("/product/1/similar", Duration.ofMinutes(2));
+            System.out.printf("Training run answered after %d ms%n", startup.toMillis());
+
+            for (String path : TRAINING_PATHS) {
+                for (int i = 0; i < REQUESTS_PER_PATH; i++) {
+                    aggregator.get(path);
+                }
+            }
+        }
+
+        if (!Files.exists(archive)) {
+            System.err.println("No CDS archive was written, see " + archive.resolveSibling("training.log"));
+            System.exit(1);
+        }
+        System.out.printf("CDS archive written to %s (%d MB)%n", archive, Files.size(archive) / (1024 * 1024));
+        System.exit(0);
+    }
+}
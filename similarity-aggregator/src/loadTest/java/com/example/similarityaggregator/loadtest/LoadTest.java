@@ -0,0 +1,175 @@
+package com.example.similarityaggregator.loadtest;
+
+import com.example.similarityaggregator.SimilarityAggregatorApplication;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local replay of the {@code shared/k6/test.js} scenarios without docker: upstream stand-ins from
+ * {@code shared/simulado/mocks.json}, the aggregator on a random port, and the same phases in the same
+ * order, each with {@code vus} users that request, then think for half a second, in a loop. Requests
+ * still running when a phase ends get that scenario's {@code gracefulStop} to finish and are cut off
+ * after it.
+ * <p>
+ * Every phase gets an HdrHistogram report. Optional thresholds fail the run:
+ * {@code loadTest.maxP99Millis} as {@code phase=millis} pairs and {@code loadTest.maxErrorRate} as a
+ * fraction applied to every phase. {@code loadTest.profiles} activates Spring profiles on the aggregator,
+ * e.g. {@code blocking} to compare both execution models.
+ */
+public final class LoadTest {
+
+    // Paths and gracefulStop of the k6 scenarios, in start order
+    private static final List<Phase> PHASES = List.of(
+            new Phase("normal", "/product/1/similar", Duration.ZERO),
+            new Phase("notFound", "/product/4/similar", Duration.ZERO),
+            new Phase("error", "/product/5/similar", Duration.ZERO),
+            new Phase("slow", "/product/2/similar", Duration.ofSeconds(10)),
+            new Phase("verySlow", "/product/3/similar", Duration.ofSeconds(30)));
+
+    private static final Duration THINK_TIME = Duration.ofMillis(500);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+    private static final Duration INTERRUPT_TIMEOUT = Duration.ofSeconds(5);
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path mocksFile = Path.of(System.getProperty("loadTest.mocksFile"));
+        Path reportDirectory = Path.of(System.getProperty("loadTest.reportDir"));
+        int vus = Integer.getInteger("loadTest.vus", 200);
+        Duration phaseDuration = Duration.parse("PT" + System.getProperty("loadTest.phaseDuration", "10s"));
+        Map<String, Double> maxP99Millis = parseThresholds(System.getProperty("loadTest.maxP99Millis", ""));
+        String maxErrorRate = System.getProperty("loadTest.maxErrorRate", "");
+
+        List<PhaseReport> reports = new ArrayList<>();
+        try (SimuladoStandIn upstream = SimuladoStandIn.start(mocksFile);
+             ConfigurableApplicationContext aggregator = startAggregator(upstream.baseUrl())) {
+            String baseUrl = "http://localhost:" + aggregator.getEnvironment().getProperty("local.server.port");
+            HttpClient client = HttpClient.newBuilder().build();
+
+            for (Phase phase : PHASES) {
+                PhaseReport report = run(client, phase, URI.create(baseUrl + phase.path()), vus, phaseDuration);
+                report.writeTo(reportDirectory);
+                System.out.println(report.summary());
+                reports.add(report);
+            }
+        }
+
+        List<String> violations = new ArrayList<>();
+        for (PhaseReport report : reports) {
+            Double maxP99 = maxP99Millis.get(report.phase());
+            if (maxP99 != null && report.percentileMillis(99) > maxP99) {
+                violations.add(String.format("%s p99 %.1fms > %.1fms", report.phase(), report.percentileMillis(99), maxP99));
+            }
+            if (!maxErrorRate.isBlank() && report.errorRate() > Double.parseDouble(maxErrorRate)) {
+                violations.add(String.format("%s error rate %.4f > %s", report.phase(), report.errorRate(), maxErrorRate));
+            }
+        }
+        System.out.println("Histograms written to " + reportDirectory.toAbsolutePath());
+        if (!violations.isEmpty()) {
+            violations.forEach(violation -> System.err.println("Threshold failed: " + violation));
+            System.exit(1);
+        }
+        System.exit(0);
+    }
+
+    private static ConfigurableApplicationContext startAggregator(String upstreamBaseUrl) {
+        return SpringApplication.run(SimilarityAggregatorApplication.class,
+                "--server.port=0",
+                "--similar-products.api.base-url=" + upstreamBaseUrl,
+                "--similar-products.cache.warmup.enabled=false",
+                "--spring.main.banner-mode=off",
+                "--logging.level.com.example.similarityaggregator=WARN",
+                "--spring.profiles.active=" + System.getProperty("loadTest.profiles", ""));
+    }
+
+    private static PhaseReport run(HttpClient client, Phase phase, URI uri, int vus, Duration duration)
+            throws InterruptedException {
+        Histogram latencies = new Histogram(REQUEST_TIMEOUT.toNanos() / 1_000, 3);
+        AtomicLong errors = new AtomicLong();
+        AtomicLong interrupted = new AtomicLong();
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(REQUEST_TIMEOUT).GET().build();
+        long startedAt = System.nanoTime();
+        long endsAt = startedAt + duration.toNanos();
+
+        // Daemon threads, so users that ignore the interrupt cannot keep the JVM from exiting
+        ExecutorService users = Executors.newFixedThreadPool(vus, Thread.ofPlatform().daemon().factory());
+        for (int i = 0; i < vus; i++) {
+            users.execute(() -> {
+                Histogram own = new Histogram(REQUEST_TIMEOUT.toNanos() / 1_000, 3);
+                while (System.nanoTime() < endsAt) {
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 400) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (InterruptedException e) {
+                        interrupted.incrementAndGet();
+                        Thread.currentThread().interrupt();
+                        break;
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    own.recordValue(Math.min((System.nanoTime() - start) / 1_000, own.getHighestTrackableValue()));
+                    try {
+                        Thread.sleep(THINK_TIME.toMillis());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                }
+                synchronized (latencies) {
+                    latencies.add(own);
+                }
+            });
+        }
+        users.shutdown();
+        // Like k6, requests still running after gracefulStop are interrupted and not recorded
+        long stopsAt = endsAt + phase.gracefulStop().toNanos();
+        if (!users.awaitTermination(Math.max(0, stopsAt - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+            users.shutdownNow();
+            if (!users.awaitTermination(INTERRUPT_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("Users of phase " + phase.name() + " still running "
+                        + INTERRUPT_TIMEOUT.toSeconds() + "s after being interrupted");
+            }
+        }
+        if (interrupted.get() > 0) {
+            System.err.printf("%s: %d requests still running %ss after the phase ended were interrupted%n",
+                    phase.name(), interrupted.get(), phase.gracefulStop().toSeconds());
+        }
+
+        return new PhaseReport(phase.name(), latencies, errors.get(), Duration.ofNanos(System.nanoTime() - startedAt));
+    }
+
+    private record Phase(String name, String path, Duration gracefulStop) {
+    }
+
+    private static Map<String, Double> parseThresholds(String thresholds) {
+        Map<String, Double> parsed = new LinkedHashMap<>();
+        for (String threshold : thresholds.split(",")) {
+            if (threshold.isBlank()) {
+                continue;
+            }
+            String[] phaseAndValue = threshold.trim().split("=", 2);
+            parsed.put(phaseAndValue[0], Double.parseDouble(phaseAndValue[1]));
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.similarityaggregator.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Outcome of one phase. Latencies are recorded in microseconds and reported in milliseconds.
+ */
+record PhaseReport(String phase, Histogram latencies, long errors, Duration elapsed) {
+
+    private static final double MICROS_PER_MILLI = 1_000.0;
+
+    long requests() {
+        return latencies.getTotalCount();
+    }
+
+    double errorRate() {
+        return requests() == 0 ? 0 : (double) errors / requests();
+    }
+
+    double percentileMillis(double percentile) {
+        return latencies.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+
+    String summary() {
+        return String.format("%-9s requests=%-7d rps=%-8.1f errors=%.2f%% p50=%.1fms p90=%.1fms p99=%.1fms "
+                        + "p99.9=%.1fms max=%.1fms",
+                phase, requests(), requests() / (elapsed.toMillis() / 1_000.0), errorRate() * 100,
+                percentileMillis(50), percentileMillis(90), percentileMillis(99), percentileMillis(99.9),
+                latencies.getMaxValue() / MICROS_PER_MILLI);
+    }
+
+    /**
+     * Writes the full percentile distribution in HdrHistogram's .hgrm format, which the online
+     * HdrHistogram plotter reads.
+     */
+    void writeTo(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(phase + ".hgrm")))) {
+            latencies.outputPercentileDistribution(out, MICROS_PER_MILLI);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.similarityaggregator.loadtest;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.file.Path;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+
+/**
+ * In-process replacement for the simulado container: serves every mock of {@code mocks.json} with its
+ * body, headers, status and delay. Delays are asynchronous, so slow mocks do not hold Jetty threads.
+ */
+final class SimuladoStandIn implements AutoCloseable {
+
+    private final WireMockServer server;
+
+    private SimuladoStandIn(WireMockServer server) {
+        this.server = server;
+    }
+
+    static SimuladoStandIn start(Path mocksFile) {
+        WireMockServer server = new WireMockServer(options()
+                .dynamicPort()
+                .containerThreads(200)
+                .asynchronousResponseEnabled(true)
+                .asynchronousResponseThreads(50)
+                .disableRequestJournal());
+        server.start();
+
+        JsonNode mocks = JsonMapper.builder().build().readTree(mocksFile.toFile());
+        for (JsonNode mock : mocks) {
+            ResponseDefinitionBuilder response = aResponse()
+                    .withStatus(mock.path("status").asInt(200))
+                    .withFixedDelay(mock.path("delay").asInt(0));
+            if (mock.hasNonNull("body")) {
+                response.withBody(mock.get("body").asString());
+            }
+            mock.path("headers").properties()
+                    .forEach(header -> response.withHeader(header.getKey(), header.getValue().asString()));
+            server.stubFor(get(urlEqualTo(mock.get("path").asString())).willReturn(response));
+        }
+        return new SimuladoStandIn(server);
+    }
+
+    String baseUrl() {
+        return server.baseUrl();
+    }
+
+    @Override
+    public void close() {
+        server.stop();
+    }
+}
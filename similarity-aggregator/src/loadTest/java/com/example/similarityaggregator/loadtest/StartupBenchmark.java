@@ -0,0 +1,53 @@
+package com.example.similarityaggregator.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Time from JVM launch to the first 200 from {@code /product/1/similar}, for the plain boot jar, the
+ * extracted jar on its own, and the extracted jar with Spring AOT, with and without the CDS archive of
+ * the training run. Each variant adds one change to the one before, so every step's gain shows on its
+ * own. Each variant is started {@code startup.runs} times; the median and the best run are reported.
+ */
+public final class StartupBenchmark {
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path bootJar = Path.of(System.getProperty("startup.bootJar"));
+        Path appJar = Path.of(System.getProperty("startup.appJar"));
+        Path archive = Path.of(System.getProperty("startup.cdsArchive"));
+        Path mocksFile = Path.of(System.getProperty("startup.mocksFile"));
+        int runs = Integer.getInteger("startup.runs", 5);
+
+        List<Variant> variants = List.of(
+                new Variant("boot jar", bootJar, List.of()),
+                new Variant("extracted", appJar, List.of()),
+                new Variant("extracted + AOT", appJar, List.of("-Dspring.aot.enabled=true")),
+                new Variant("extracted + AOT + CDS", appJar,
+                        List.of("-Dspring.aot.enabled=true", "-XX:SharedArchiveFile=" + archive)));
+
+        try (SimuladoStandIn upstream = SimuladoStandIn.start(mocksFile)) {
+            System.out.printf("%-24s %12s %12s%n", "variant", "median (ms)", "best (ms)");
+            for (Variant variant : variants) {
+                List<Long> millis = new ArrayList<>();
+                for (int i = 0; i < runs; i++) {
+                    try (AggregatorProcess aggregator = AggregatorProcess.start(variant.jar(), variant.jvmOptions(),
+                            upstream.baseUrl(), archive.resolveSibling("benchmark.log"))) {
+                        millis.add(aggregator.awaitFirstResponse("/product/1/similar", Duration.ofMinutes(2))
+                                .toMillis());
+                    }
+                }
+                millis.sort(null);
+                System.out.printf("%-24s %12d %12d%n", variant.name(), millis.get(millis.size() / 2), millis.get(0));
+            }
+        }
+        System.exit(0);
+    }
+
+    private record Variant(String name, Path jar, List<String> jvmOptions) {
+    }
+}
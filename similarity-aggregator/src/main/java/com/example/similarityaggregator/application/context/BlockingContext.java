@@ -0,0 +1,55 @@
+package com.example.similarityaggregator.application.context;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.function.Supplier;
+
+/**
+ * The Reactor context of the request a blocking thread works for. Blocking code has no Reactor
+ * context of its own, so the blocking use case binds the request's one to every thread it runs on,
+ * and per-request state such as {@link ResponseQuality} stays reachable from there.
+ */
+public final class BlockingContext {
+
+    private static final ThreadLocal<ContextView> CURRENT = new ThreadLocal<>();
+
+    private BlockingContext() {
+    }
+
+    /**
+     * Binds {@code context} to the current thread until the returned scope is closed.
+     */
+    public static Scope bind(ContextView context) {
+        ContextView previous = CURRENT.get();
+        CURRENT.set(context);
+        return () -> {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        };
+    }
+
+    public static <T> T callWith(ContextView context, Supplier<T> call) {
+        try (Scope ignored = bind(context)) {
+            return call.get();
+        }
+    }
+
+    /**
+     * @return the context bound to the current thread, empty outside a blocking request
+     */
+    public static ContextView current() {
+        ContextView context = CURRENT.get();
+        return context != null ? context : Context.empty();
+    }
+
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.similarityaggregator.application.context;
+
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.Optional;
+
+/**
+ * Per-request flags describing how complete or fresh an answer is. The inbound adapter puts an
+ * instance in the Reactor context and turns it into response headers; anything running inside the
+ * request pipeline can flag it. Work shared with other requests (single-flight) only reaches the
+ * context of the request that started it. Blocking code flags the request bound to its thread through
+ * {@link BlockingContext}.
+ */
+public final class ResponseQuality {
+
+    private static final Class<ResponseQuality> CONTEXT_KEY = ResponseQuality.class;
+
+    private volatile boolean degraded;
+    private volatile boolean partial;
+
+    public boolean isDegraded() {
+        return degraded;
+    }
+
+    public boolean isPartial() {
+        return partial;
+    }
+
+    public Context writeTo(Context context) {
+        return context.put(CONTEXT_KEY, this);
+    }
+
+    public static Optional<ResponseQuality> from(ContextView context) {
+        return context.getOrEmpty(CONTEXT_KEY);
+    }
+
+    /**
+     * Flags the current request as served (at least partly) from stale data.
+     */
+    public static <T> Mono<T> markDegraded(Mono<T> value) {
+        return Mono.deferContextual(context -> {
+            from(context).ifPresent(quality -> quality.degraded = true);
+            return value;
+        });
+    }
+
+    /**
+     * Flags the current request as missing items that exist upstream but could not be fetched.
+     */
+    public static <T> Mono<T> markPartial(Mono<T> value) {
+        return Mono.deferContextual(context -> {
+            from(context).ifPresent(quality -> quality.partial = true);
+            return value;
+        });
+    }
+
+    /**
+     * {@link #markDegraded} for the request bound to the current thread.
+     */
+    public static void flagDegraded() {
+        from(BlockingContext.current()).ifPresent(quality -> quality.degraded = true);
+    }
+
+    /**
+     * {@link #markPartial} for the request bound to the current thread.
+     */
+    public static void flagPartial() {
+        from(BlockingContext.current()).ifPresent(quality -> quality.partial = true);
+    }
+}
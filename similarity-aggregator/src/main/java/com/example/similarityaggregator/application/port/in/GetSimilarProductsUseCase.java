@@ -1,11 +1,25 @@
 package com.example.similarityaggregator.application.port.in;
 
 import com.example.similarityaggregator.domain.model.Product;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
+import java.util.Map;
 
 public interface GetSimilarProductsUseCase {
 
     Mono<List<Product>> getSimilarProducts(String productId);
-}
\ No newline at end of file
+
+    /**
+     * Same products as {@link #getSimilarProducts(String)}, in the same order, each emitted as soon as
+     * it and every product before it are available.
+     */
+    Flux<Product> streamSimilarProducts(String productId);
+
+    /**
+     * Similar products of several products at once, keyed by product id in request order. A detail
+     * shared by several lists is fetched once. Unknown product ids are left out of the result.
+     */
+    Mono<Map<String, List<Product>>> getSimilarProducts(List<String> productIds);
+}
@@ -0,0 +1,12 @@
+package com.example.similarityaggregator.application.port.out;
+
+import com.example.similarityaggregator.domain.model.Product;
+
+import java.util.Optional;
+
+/**
+ * Blocking counterpart of {@link ProductDetailPort}, for callers that run on a thread of their own.
+ */
+public interface BlockingProductDetailPort {
+    Optional<Product> getProductDetail(String productId);
+}
@@ -0,0 +1,10 @@
+package com.example.similarityaggregator.application.port.out;
+
+import java.util.List;
+
+/**
+ * Blocking counterpart of {@link SimilarProductIdsPort}, for callers that run on a thread of their own.
+ */
+public interface BlockingSimilarProductIdsPort {
+    List<String> getSimilarIds(String productId);
+}
@@ -1,8 +1,41 @@
 package com.example.similarityaggregator.application.port.out;
 
+import com.example.similarityaggregator.application.context.ResponseQuality;
+import com.example.similarityaggregator.domain.exception.ProductNotFoundException;
 import com.example.similarityaggregator.domain.model.Product;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+
 public interface ProductDetailPort {
     Mono<Product> getProductDetail(String productId);
+
+    /**
+     * Details of several products as one unit, each emitted as soon as it is loaded and keyed by the id
+     * it was requested with. Never fails: a product that does not exist or could not be loaded comes
+     * without a product, flagged partial in the second case. Fetches them one by one, until the upstream
+     * offers a bulk endpoint.
+     */
+    default Flux<Detail> getProductDetails(Collection<String> productIds) {
+        return Flux.fromIterable(productIds)
+                .flatMap(productId -> Mono.defer(() -> {
+                    ResponseQuality quality = new ResponseQuality();
+                    return getProductDetail(productId)
+                            .onErrorResume(ProductNotFoundException.class, e -> Mono.empty())
+                            .onErrorResume(e -> ResponseQuality.markPartial(Mono.empty()))
+                            .map(product -> new Detail(productId, product, quality.isDegraded(), quality.isPartial()))
+                            .switchIfEmpty(Mono.fromSupplier(() ->
+                                    new Detail(productId, null, quality.isDegraded(), quality.isPartial())))
+                            .contextWrite(quality::writeTo);
+                }), Math.max(1, productIds.size()));
+    }
+
+    /**
+     * One product of a {@link #getProductDetails} call, with the quality flags raised while loading it.
+     *
+     * @param product null when it does not exist or could not be loaded
+     */
+    record Detail(String productId, Product product, boolean degraded, boolean partial) {
+    }
 }
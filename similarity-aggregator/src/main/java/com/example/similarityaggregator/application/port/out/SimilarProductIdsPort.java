@@ -1,5 +1,6 @@
 package com.example.similarityaggregator.application.port.out;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
@@ -7,4 +8,12 @@ import java.util.List;
 public interface SimilarProductIdsPort {
 
     Mono<List<String>> getSimilarIds(String productId);
+
+    /**
+     * Same ids as {@link #getSimilarIds(String)}, in the same order, each emitted as soon as it is
+     * known, so callers can start working on the first ids before the whole list has arrived.
+     */
+    default Flux<String> streamSimilarIds(String productId) {
+        return getSimilarIds(productId).flatMapIterable(ids -> ids);
+    }
 }
\ No newline at end of file
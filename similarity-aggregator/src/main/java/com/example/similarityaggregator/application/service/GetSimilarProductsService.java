@@ -1,5 +1,6 @@
 package com.example.similarityaggregator.application.service;
 
+import com.example.similarityaggregator.application.context.ResponseQuality;
 import com.example.similarityaggregator.application.port.in.GetSimilarProductsUseCase;
 import com.example.similarityaggregator.application.port.out.ProductDetailPort;
 import com.example.similarityaggregator.application.port.out.SimilarProductIdsPort;
@@ -7,41 +8,168 @@ import com.example.similarityaggregator.domain.exception.ProductNotFoundExceptio
 import com.example.similarityaggregator.domain.model.Product;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
 
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 
 @Service
+@Profile("!blocking")
+@Qualifier("similarProductsService")
 public class GetSimilarProductsService implements GetSimilarProductsUseCase {
 
     private static final Logger log = LoggerFactory.getLogger(GetSimilarProductsService.class);
 
     private final SimilarProductIdsPort similarProductIdsPort;
     private final ProductDetailPort productDetailPort;
+    private final Duration responseDeadline;
+    private final int maxDetailFanOut;
 
+    /**
+     * @param responseDeadline time from the request until the list is answered with whatever products
+     *                         arrived so far; the similar ids themselves are always awaited
+     * @param maxDetailFanOut  detail fetches one request keeps in flight; up to the adaptive limit when
+     *                         that is on, as it already caps upstream calls across requests
+     */
     public GetSimilarProductsService(SimilarProductIdsPort similarProductIdsPort,
-                                     ProductDetailPort productDetailPort) {
+                                     ProductDetailPort productDetailPort,
+                                     @Value("${similar-products.response-deadline}") Duration responseDeadline,
+                                     @Value("#{${similar-products.api.concurrency-limit.enabled:false}"
+                                             + " ? ${similar-products.api.concurrency-limit.max-limit:200} : 10}")
+                                     int maxDetailFanOut) {
         this.similarProductIdsPort = similarProductIdsPort;
         this.productDetailPort = productDetailPort;
+        this.responseDeadline = responseDeadline;
+        this.maxDetailFanOut = maxDetailFanOut;
     }
 
     @Override
     public Mono<List<Product>> getSimilarProducts(String productId) {
         log.info("Fetching similar products for productId={}", productId);
 
+        return Mono.defer(() -> {
+                    long deadline = System.nanoTime() + responseDeadline.toNanos();
+
+                    // Details are fetched while the ids are still arriving; the deadline only cuts them short once all are known.
+                    // Each product keeps the slot of its id, so one slow product only leaves out itself, not those after it
+                    return similarProductIds(productId)
+                            .index()
+                            .publish(ids -> ids
+                                    .flatMap(slot -> fetchProductDetached(slot.getT2())
+                                            .map(product -> Tuples.of(slot.getT1(), product)), maxDetailFanOut)
+                                    .takeUntilOther(ids.then(Mono.defer(() -> deadlineReached(productId, deadline)))))
+                            .collectSortedList(Comparator.comparing(Tuple2::getT1))
+                            .map(products -> products.stream()
+                                    .map(Tuple2::getT2)
+                                    .toList());
+                })
+                .doOnSuccess(products -> log.info("Returning {} products for productId={}", products.size(), productId));
+    }
+
+    @Override
+    public Mono<Map<String, List<Product>>> getSimilarProducts(List<String> productIds) {
+        List<String> distinctIds = productIds.stream().distinct().toList();
+        log.info("Fetching similar products for {} productIds", distinctIds.size());
+
+        return Mono.defer(() -> {
+            long deadline = System.nanoTime() + responseDeadline.toNanos();
+
+            return Flux.fromIterable(distinctIds)
+                    .flatMapSequential(productId -> similarProductIdsOrSkip(productId)
+                            .map(ids -> Map.entry(productId, ids)), Math.max(1, distinctIds.size()))
+                    .collectList()
+                    .flatMap(similarIds -> {
+                        List<String> detailIds = similarIds.stream()
+                                .flatMap(entry -> entry.getValue().stream())
+                                .distinct()
+                                .toList();
+                        log.debug("Fetching {} distinct details for {} productIds", detailIds.size(), similarIds.size());
+
+                        // Keyed by the requested id, whatever id the upstream answers with
+                        return Flux.fromIterable(detailIds)
+                                .flatMap(id -> fetchProductDetached(id)
+                                        .map(product -> Map.entry(id, product)), maxDetailFanOut)
+                                .takeUntilOther(deadlineReached(String.join(",", distinctIds), deadline))
+                                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                                .map(details -> assemble(similarIds, details));
+                    });
+        });
+    }
+
+    @Override
+    public Flux<Product> streamSimilarProducts(String productId) {
+        log.info("Streaming similar products for productId={}", productId);
+
+        // No deadline here, so a client that goes away cancels the fetches it started
+        return fetchProductsPreservingOrder(similarProductIds(productId), this::fetchProductOrSkip);
+    }
+
+    private Flux<String> similarProductIds(String productId) {
+        return similarProductIdsPort.streamSimilarIds(productId)
+                .doOnNext(id -> log.debug("Found similar id {} for productId={}", id, productId));
+    }
+
+    /**
+     * A product whose similar ids cannot be loaded is left out, so one bad id does not fail the batch.
+     */
+    private Mono<List<String>> similarProductIdsOrSkip(String productId) {
         return similarProductIdsPort.getSimilarIds(productId)
-                .doOnNext(ids -> log.debug("Found {} similar ids", ids.size()))
-                .flatMapMany(this::fetchProductsPreservingOrder)
-                .collectList()
-                .doOnSuccess(products -> log.info("Returning {} products for productId={}", products.size(), productId))
-                .cache();
+                .onErrorResume(ProductNotFoundException.class, e -> {
+                    log.debug("Product not found, skipping: {}", productId);
+                    return Mono.empty();
+                })
+                .onErrorResume(e -> {
+                    log.error("Unexpected error fetching similar ids of {}: {}", productId, e.getMessage());
+                    return ResponseQuality.markPartial(Mono.empty());
+                });
     }
 
-    private Flux<Product> fetchProductsPreservingOrder(List<String> productIds) {
-        return Flux.fromIterable(productIds)
-                .flatMapSequential(this::fetchProductOrSkip, 10);
+    private static Map<String, List<Product>> assemble(List<Map.Entry<String, List<String>>> similarIds,
+                                                       Map<String, Product> details) {
+        Map<String, List<Product>> result = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> entry : similarIds) {
+            result.put(entry.getKey(), entry.getValue().stream()
+                    .map(details::get)
+                    .filter(Objects::nonNull)
+                    .toList());
+        }
+        return result;
+    }
+
+    private Mono<Long> deadlineReached(String productId, long deadline) {
+        return Mono.delay(Duration.ofNanos(Math.max(0, deadline - System.nanoTime())))
+                .flatMap(tick -> {
+                    log.warn("Response deadline of {} reached, answering with the products fetched so far, productId={}",
+                            responseDeadline, productId);
+                    return ResponseQuality.markPartial(Mono.just(tick));
+                });
+    }
+
+    private Flux<Product> fetchProductsPreservingOrder(Flux<String> productIds,
+                                                       Function<String, Mono<Product>> fetch) {
+        // Every detail is requested as soon as its id is known and the fan-out allows
+        return productIds.flatMapSequential(fetch, maxDetailFanOut);
+    }
+
+    /**
+     * Runs detached from the request: a deadline cancels the wait, not the fetch, so a late product
+     * still reaches the cache and the next request gets it.
+     */
+    private Mono<Product> fetchProductDetached(String productId) {
+        return Mono.deferContextual(context ->
+                Mono.fromFuture(fetchProductOrSkip(productId).contextWrite(context).toFuture(), true));
     }
 
     private Mono<Product> fetchProductOrSkip(String productId) {
@@ -53,7 +181,7 @@ public class GetSimilarProductsService implements GetSimilarProductsUseCase {
                 })
                 .onErrorResume(e -> {
                     log.error("Unexpected error fetching product {}: {}", productId, e.getMessage());
-                    return Mono.empty();
+                    return ResponseQuality.markPartial(Mono.empty());
                 });
     }
 }
\ No newline at end of file
@@ -0,0 +1,233 @@
+package com.example.similarityaggregator.application.service;
+
+import com.example.similarityaggregator.application.context.BlockingContext;
+import com.example.similarityaggregator.application.context.ResponseQuality;
+import com.example.similarityaggregator.application.port.in.GetSimilarProductsUseCase;
+import com.example.similarityaggregator.application.port.out.BlockingProductDetailPort;
+import com.example.similarityaggregator.application.port.out.BlockingSimilarProductIdsPort;
+import com.example.similarityaggregator.domain.exception.ProductNotFoundException;
+import com.example.similarityaggregator.domain.model.Product;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Blocking counterpart of {@link GetSimilarProductsService} for the {@code blocking} profile, kept to
+ * compare both models under the same load. The aggregation is plain sequential code on a virtual
+ * thread, calling the blocking ports directly; each product detail is fetched on a virtual thread of
+ * its own. The answer is the same, including the response deadline and the partial flag.
+ * <p>
+ * The server is still WebFlux, so the request hops onto a virtual thread once, here, and the answer
+ * hops back. Every thread started for a request has the request's context bound to it.
+ */
+@Service
+@Profile("blocking")
+@Qualifier("similarProductsService")
+public class VirtualThreadGetSimilarProductsService implements GetSimilarProductsUseCase {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadGetSimilarProductsService.class);
+
+    private final BlockingSimilarProductIdsPort similarProductIdsPort;
+    private final BlockingProductDetailPort productDetailPort;
+    private final ExecutorService virtualThreads;
+    private final Scheduler virtualThreadScheduler;
+    private final Duration responseDeadline;
+
+    public VirtualThreadGetSimilarProductsService(BlockingSimilarProductIdsPort similarProductIdsPort,
+                                                  BlockingProductDetailPort productDetailPort,
+                                                  @Qualifier("virtualThreadExecutor") ExecutorService virtualThreads,
+                                                  @Qualifier("virtualThreadScheduler") Scheduler virtualThreadScheduler,
+                                                  @Value("${similar-products.response-deadline}") Duration responseDeadline) {
+        this.similarProductIdsPort = similarProductIdsPort;
+        this.productDetailPort = productDetailPort;
+        this.virtualThreads = virtualThreads;
+        this.virtualThreadScheduler = virtualThreadScheduler;
+        this.responseDeadline = responseDeadline;
+    }
+
+    @Override
+    public Mono<List<Product>> getSimilarProducts(String productId) {
+        log.info("Fetching similar products for productId={}", productId);
+
+        return onVirtualThread(context -> {
+            long deadline = System.nanoTime() + responseDeadline.toNanos();
+            List<CompletableFuture<Product>> details = fetchAll(similarProductIds(productId), context);
+
+            Answer<List<Product>> answer = new Answer<>(new ArrayList<>());
+            answer.awaitUntil(details, deadline, productId);
+            // Whatever arrived by then, in list order; a slow product only leaves out itself
+            details.stream()
+                    .map(detail -> detail.getNow(null))
+                    .filter(Objects::nonNull)
+                    .forEach(answer.value()::add);
+            return answer;
+        });
+    }
+
+    @Override
+    public Flux<Product> streamSimilarProducts(String productId) {
+        log.info("Streaming similar products for productId={}", productId);
+
+        return Mono.deferContextual(context -> Mono.fromCallable(() -> BlockingContext.callWith(context,
+                                () -> fetchAll(similarProductIds(productId), context)))
+                        .subscribeOn(virtualThreadScheduler))
+                .flatMapMany(Flux::fromIterable)
+                .concatMap(detail -> Mono.fromFuture(detail, true));
+    }
+
+    @Override
+    public Mono<Map<String, List<Product>>> getSimilarProducts(List<String> productIds) {
+        List<String> distinctIds = productIds.stream().distinct().toList();
+        log.info("Fetching similar products for {} productIds", distinctIds.size());
+
+        return onVirtualThread(context -> {
+            long deadline = System.nanoTime() + responseDeadline.toNanos();
+            Map<String, CompletableFuture<List<String>>> similarIds = new LinkedHashMap<>();
+            distinctIds.forEach(productId -> similarIds.put(productId,
+                    onOwnThread(() -> similarProductIdsOrSkip(productId), context)));
+
+            Map<String, CompletableFuture<Product>> details = new LinkedHashMap<>();
+            similarIds.values().stream()
+                    .map(CompletableFuture::join)
+                    .filter(Objects::nonNull)
+                    .flatMap(List::stream)
+                    .forEach(detailId -> details.computeIfAbsent(detailId,
+                            id -> onOwnThread(() -> fetchProduct(id), context)));
+
+            Answer<Map<String, List<Product>>> answer = new Answer<>(new LinkedHashMap<>());
+            answer.awaitUntil(details.values(), deadline, String.join(",", distinctIds));
+            similarIds.forEach((productId, ids) -> {
+                if (ids.join() != null) {
+                    answer.value().put(productId, ids.join().stream()
+                            .map(details::get)
+                            .map(detail -> detail.getNow(null))
+                            .filter(Objects::nonNull)
+                            .toList());
+                }
+            });
+            return answer;
+        });
+    }
+
+    private <T> Mono<T> onVirtualThread(AnswerFunction<T> aggregation) {
+        return Mono.deferContextual(context -> Mono.fromCallable(() -> {
+                            try (BlockingContext.Scope ignored = BlockingContext.bind(context)) {
+                                return aggregation.apply(context);
+                            }
+                        })
+                        .subscribeOn(virtualThreadScheduler))
+                .flatMap(answer -> answer.partial
+                        ? ResponseQuality.markPartial(Mono.just(answer.value()))
+                        : Mono.just(answer.value()));
+    }
+
+    /**
+     * Each detail is fetched on its own virtual thread and keeps going after the deadline, so a late
+     * product still reaches the cache.
+     */
+    private List<CompletableFuture<Product>> fetchAll(List<String> productIds, ContextView context) {
+        return productIds.stream()
+                .map(productId -> onOwnThread(() -> fetchProduct(productId), context))
+                .toList();
+    }
+
+    private <T> CompletableFuture<T> onOwnThread(Supplier<T> call, ContextView context) {
+        return CompletableFuture.supplyAsync(() -> BlockingContext.callWith(context, call), virtualThreads);
+    }
+
+    private List<String> similarProductIds(String productId) {
+        List<String> ids = similarProductIdsPort.getSimilarIds(productId);
+        log.debug("Found {} similar ids", ids.size());
+        return ids;
+    }
+
+    /**
+     * @return {@code null} when the product is unknown or its similar ids could not be loaded
+     */
+    private List<String> similarProductIdsOrSkip(String productId) {
+        try {
+            return similarProductIds(productId);
+        } catch (ProductNotFoundException e) {
+            log.debug("Product not found, skipping: {}", productId);
+            return null;
+        } catch (RuntimeException e) {
+            log.error("Unexpected error fetching similar ids of {}: {}", productId, e.getMessage());
+            ResponseQuality.flagPartial();
+            return null;
+        }
+    }
+
+    /**
+     * @return {@code null} when the product is unknown or could not be loaded
+     */
+    private Product fetchProduct(String productId) {
+        try {
+            Optional<Product> product = productDetailPort.getProductDetail(productId);
+            product.ifPresent(found -> log.debug("Fetched product: {}", found.id()));
+            return product.orElse(null);
+        } catch (ProductNotFoundException e) {
+            log.debug("Product not found, skipping: {}", productId);
+            return null;
+        } catch (RuntimeException e) {
+            log.error("Unexpected error fetching product {}: {}", productId, e.getMessage());
+            ResponseQuality.flagPartial();
+            return null;
+        }
+    }
+
+    @FunctionalInterface
+    private interface AnswerFunction<T> {
+        Answer<T> apply(ContextView context) throws Exception;
+    }
+
+    private final class Answer<T> {
+
+        private final T value;
+        private boolean partial;
+
+        Answer(T value) {
+            this.value = value;
+        }
+
+        T value() {
+            return value;
+        }
+
+        /**
+         * Waits for every detail until the response deadline; the answer is partial if some are still missing then.
+         */
+        void awaitUntil(Collection<CompletableFuture<Product>> details, long deadline, String productId)
+                throws InterruptedException, ExecutionException {
+            try {
+                CompletableFuture.allOf(details.toArray(CompletableFuture[]::new))
+                        .get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                log.warn("Response deadline of {} reached, answering with the products fetched so far, productId={}",
+                        responseDeadline, productId);
+                partial = true;
+            }
+        }
+    }
+}
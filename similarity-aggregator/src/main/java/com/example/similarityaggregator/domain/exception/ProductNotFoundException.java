@@ -1,15 +1,19 @@
 package com.example.similarityaggregator.domain.exception;
 
+/**
+ * Expected outcome for unknown products rather than a failure, so it is created without a stack trace:
+ * the not-found path is hot under load and the trace is never logged.
+ */
 public class ProductNotFoundException extends RuntimeException {
 
     private final String productId;
 
     public ProductNotFoundException(String productId) {
-        super("Product not found: " + productId);
+        super("Product not found: " + productId, null, false, false);
         this.productId = productId;
     }
 
     public String getProductId() {
         return productId;
     }
-}
\ No newline at end of file
+}
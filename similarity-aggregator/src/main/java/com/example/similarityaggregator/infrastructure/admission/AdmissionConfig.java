@@ -0,0 +1,35 @@
+package com.example.similarityaggregator.infrastructure.admission;
+
+import com.example.similarityaggregator.application.port.in.GetSimilarProductsUseCase;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Puts admission control in front of the use case. Responses served from the response cache never
+ * reach it, and requests sharing an aggregation ({@code CoalescingConfig}) only take one slot, so
+ * only actual aggregations compete for a slot.
+ */
+@Configuration
+@EnableConfigurationProperties(AdmissionProperties.class)
+public class AdmissionConfig {
+
+    @Bean
+    public AdmissionController admissionController(AdmissionProperties properties, MeterRegistry meterRegistry) {
+        return new AdmissionController(properties, meterRegistry);
+    }
+
+    @Bean
+    public AdmissionEndpoint admissionEndpoint(AdmissionController admissionController) {
+        return new AdmissionEndpoint(admissionController);
+    }
+
+    @Bean
+    public GetSimilarProductsUseCase admissionControlledGetSimilarProductsUseCase(
+            @Qualifier("similarProductsService") GetSimilarProductsUseCase service,
+            AdmissionController admissionController) {
+        return new AdmissionControlledGetSimilarProductsUseCase(service, admissionController);
+    }
+}
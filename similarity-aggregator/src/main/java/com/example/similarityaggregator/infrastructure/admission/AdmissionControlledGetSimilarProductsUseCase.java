@@ -0,0 +1,39 @@
+package com.example.similarityaggregator.infrastructure.admission;
+
+import com.example.similarityaggregator.application.port.in.GetSimilarProductsUseCase;
+import com.example.similarityaggregator.domain.model.Product;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs every aggregation through the {@link AdmissionController}; a batch takes a single slot.
+ */
+public class AdmissionControlledGetSimilarProductsUseCase implements GetSimilarProductsUseCase {
+
+    private final GetSimilarProductsUseCase delegate;
+    private final AdmissionController admissionController;
+
+    public AdmissionControlledGetSimilarProductsUseCase(GetSimilarProductsUseCase delegate,
+                                                        AdmissionController admissionController) {
+        this.delegate = delegate;
+        this.admissionController = admissionController;
+    }
+
+    @Override
+    public Mono<List<Product>> getSimilarProducts(String productId) {
+        return admissionController.admit(() -> delegate.getSimilarProducts(productId));
+    }
+
+    @Override
+    public Flux<Product> streamSimilarProducts(String productId) {
+        return admissionController.admitMany(() -> delegate.streamSimilarProducts(productId));
+    }
+
+    @Override
+    public Mono<Map<String, List<Product>>> getSimilarProducts(List<String> productIds) {
+        return admissionController.admit(() -> delegate.getSimilarProducts(productIds));
+    }
+}
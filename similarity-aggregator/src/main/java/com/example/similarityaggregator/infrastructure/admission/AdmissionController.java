@@ -0,0 +1,181 @@
+package com.example.similarityaggregator.infrastructure.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Caps the requests being aggregated and sheds the ones that would only wait, CoDel style: a queue
+ * that drains within {@code target} is fine, but when even the shortest wait of an {@code interval}
+ * exceeded {@code target}, the queue is standing and the service is overloaded. Queued requests then
+ * get {@code target} to start before they are rejected, instead of the usual {@code interval}, so
+ * clients fail fast while the upstream is slow rather than hanging until their own timeout.
+ */
+public class AdmissionController {
+
+    private static final int WAITING = 0;
+    private static final int ADMITTED = 1;
+    private static final int SHED = 2;
+    private static final int CANCELLED = 3;
+
+    private final AdmissionProperties policy;
+    private final Queue<Waiter> waiters = new ArrayDeque<>();
+    private final Timer queueTime;
+    private final Counter rejectedQueueFull;
+    private final Counter rejectedQueueTimeout;
+
+    private int inFlight;
+    private boolean overloaded;
+    private long intervalEnd;
+    private long minDelayInInterval = Long.MAX_VALUE;
+
+    public AdmissionController(AdmissionProperties policy, MeterRegistry meterRegistry) {
+        this.policy = policy;
+        this.intervalEnd = System.nanoTime() + policy.interval().toNanos();
+        this.queueTime = Timer.builder("admission.queue.time")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejectedQueueFull = rejected(meterRegistry, "queue_full");
+        this.rejectedQueueTimeout = rejected(meterRegistry, "queue_timeout");
+        Gauge.builder("admission.in.flight", this, controller -> controller.state().inFlight())
+                .register(meterRegistry);
+        Gauge.builder("admission.queued", this, controller -> controller.state().queued())
+                .register(meterRegistry);
+        Gauge.builder("admission.overloaded", this, controller -> controller.state().overloaded() ? 1 : 0)
+                .register(meterRegistry);
+    }
+
+    public <T> Mono<T> admit(Supplier<Mono<T>> request) {
+        // Not Mono.from, which would cancel, and so free the slot, before the value reaches the caller
+        return Mono.fromDirect(admitMany(request));
+    }
+
+    public <T> Flux<T> admitMany(Supplier<? extends Publisher<T>> request) {
+        if (!policy.enabled()) {
+            return Flux.defer(request);
+        }
+        return Flux.defer(() -> {
+            Waiter waiter = new Waiter(System.nanoTime());
+            return acquire(waiter)
+                    .thenMany(Flux.defer(request))
+                    .doFinally(signal -> release(waiter));
+        });
+    }
+
+    public synchronized State state() {
+        return new State(inFlight, waiters.size(), overloaded);
+    }
+
+    public AdmissionProperties policy() {
+        return policy;
+    }
+
+    private Mono<Void> acquire(Waiter waiter) {
+        Duration timeout;
+        synchronized (this) {
+            if (inFlight < policy.maxConcurrent()) {
+                inFlight++;
+                markAdmitted(waiter, waiter.queuedAt);
+                return Mono.empty();
+            }
+            if (waiters.size() >= policy.maxQueued()) {
+                waiter.state = SHED;
+                rejectedQueueFull.increment();
+                return Mono.error(new AdmissionRejectedException("queue full", policy.retryAfter()));
+            }
+            waiters.add(waiter);
+            timeout = overloaded ? policy.target() : policy.interval();
+        }
+
+        Mono<Void> shed = Mono.delay(timeout)
+                .flatMap(tick -> shed(waiter)
+                        ? Mono.<Void>error(new AdmissionRejectedException("queued too long", policy.retryAfter()))
+                        : Mono.<Void>never());
+        return Mono.firstWithSignal(waiter.admitted.asMono(), shed);
+    }
+
+    private synchronized boolean shed(Waiter waiter) {
+        if (waiter.state != WAITING) {
+            return false;
+        }
+        waiter.state = SHED;
+        waiters.remove(waiter);
+        long now = System.nanoTime();
+        observeDelay(now - waiter.queuedAt, now);
+        rejectedQueueTimeout.increment();
+        return true;
+    }
+
+    private void release(Waiter waiter) {
+        Waiter next;
+        synchronized (this) {
+            if (waiter.state == WAITING) {
+                waiter.state = CANCELLED;
+                waiters.remove(waiter);
+                return;
+            }
+            if (waiter.state != ADMITTED) {
+                return;
+            }
+            waiter.state = CANCELLED;
+            next = waiters.poll();
+            if (next == null) {
+                inFlight--;
+            } else {
+                // The permit goes straight to the next request
+                markAdmitted(next, System.nanoTime());
+            }
+        }
+        if (next != null) {
+            next.admitted.tryEmitEmpty();
+        }
+    }
+
+    private void markAdmitted(Waiter waiter, long now) {
+        waiter.state = ADMITTED;
+        long delay = now - waiter.queuedAt;
+        queueTime.record(delay, TimeUnit.NANOSECONDS);
+        observeDelay(delay, now);
+    }
+
+    private void observeDelay(long delayNanos, long now) {
+        minDelayInInterval = Math.min(minDelayInInterval, delayNanos);
+        if (now - intervalEnd >= 0) {
+            overloaded = minDelayInInterval > policy.target().toNanos();
+            minDelayInInterval = Long.MAX_VALUE;
+            intervalEnd = now + policy.interval().toNanos();
+        }
+    }
+
+    private static Counter rejected(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("admission.rejected")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    public record State(int inFlight, int queued, boolean overloaded) {
+    }
+
+    // Guarded by the controller's lock
+    private static final class Waiter {
+
+        final long queuedAt;
+        final Sinks.Empty<Void> admitted = Sinks.empty();
+        int state = WAITING;
+
+        Waiter(long queuedAt) {
+            this.queuedAt = queuedAt;
+        }
+    }
+}
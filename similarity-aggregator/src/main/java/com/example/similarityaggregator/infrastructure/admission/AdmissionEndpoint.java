@@ -0,0 +1,40 @@
+package com.example.similarityaggregator.infrastructure.admission;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.time.Duration;
+
+/**
+ * {@code /actuator/admission}: the configured limits next to the current load.
+ */
+@Endpoint(id = "admission")
+public class AdmissionEndpoint {
+
+    private final AdmissionController admissionController;
+
+    public AdmissionEndpoint(AdmissionController admissionController) {
+        this.admissionController = admissionController;
+    }
+
+    @ReadOperation
+    public Admission admission() {
+        AdmissionProperties policy = admissionController.policy();
+        AdmissionController.State state = admissionController.state();
+        return new Admission(policy.enabled(), policy.maxConcurrent(), policy.maxQueued(), policy.target(),
+                policy.interval(), policy.retryAfter(), state.inFlight(), state.queued(), state.overloaded());
+    }
+
+    public record Admission(
+            boolean enabled,
+            int maxConcurrent,
+            int maxQueued,
+            Duration target,
+            Duration interval,
+            Duration retryAfter,
+            int inFlight,
+            int queued,
+            boolean overloaded
+    ) {
+    }
+}
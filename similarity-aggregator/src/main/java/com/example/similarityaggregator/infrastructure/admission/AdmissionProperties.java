@@ -0,0 +1,36 @@
+package com.example.similarityaggregator.infrastructure.admission;
+
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * @param maxConcurrent requests aggregated at the same time; the rest wait in a queue
+ * @param maxQueued     requests allowed to wait before new ones are rejected right away
+ * @param target        acceptable queueing delay; once every request of an {@code interval} waited
+ *                      longer, queued requests are shed after waiting this long
+ * @param interval      how long a request may wait while the queue drains normally, and how often
+ *                      the queue is checked for standing delay
+ * @param retryAfter    sent to rejected clients in the {@code Retry-After} header
+ */
+@Validated
+@ConfigurationProperties(prefix = "similar-products.admission")
+public record AdmissionProperties(
+        boolean enabled,
+        @Positive Integer maxConcurrent,
+        @PositiveOrZero Integer maxQueued,
+        Duration target,
+        Duration interval,
+        Duration retryAfter
+) {
+    public AdmissionProperties {
+        maxConcurrent = maxConcurrent == null ? 100 : maxConcurrent;
+        maxQueued = maxQueued == null ? 500 : maxQueued;
+        target = target == null ? Duration.ofMillis(50) : target;
+        interval = interval == null ? Duration.ofMillis(500) : interval;
+        retryAfter = retryAfter == null ? Duration.ofSeconds(1) : retryAfter;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.similarityaggregator.infrastructure.admission;
+
+import java.time.Duration;
+
+/**
+ * A request was shed because the service is saturated. Expected under load, so it carries no stack
+ * trace.
+ */
+public class AdmissionRejectedException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public AdmissionRejectedException(String reason, Duration retryAfter) {
+        super("Request rejected: " + reason, null, false, false);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
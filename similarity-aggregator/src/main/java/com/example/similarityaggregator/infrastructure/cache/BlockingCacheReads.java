@@ -0,0 +1,54 @@
+package com.example.similarityaggregator.infrastructure.cache;
+
+import com.example.similarityaggregator.application.context.BlockingContext;
+import com.example.similarityaggregator.application.context.ResponseQuality;
+import org.springframework.cache.Cache;
+import reactor.util.context.Context;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+final class BlockingCacheReads {
+
+    private BlockingCacheReads() {
+    }
+
+    /**
+     * Reads through {@link Cache#retrieve}, which never loads a missing key but still refreshes a stale
+     * one in the background, and waits for the entry on the calling thread.
+     *
+     * @return the cached value, or {@code null} on a miss
+     */
+    static <T> T lookup(Cache cache, Object key, Class<T> type) {
+        CompletableFuture<?> cached = cache.retrieve(key);
+        if (cached == null) {
+            return null;
+        }
+        Object value = cached.join();
+        if (value instanceof Cache.ValueWrapper wrapper) {
+            value = wrapper.get();
+        }
+        return type.cast(value);
+    }
+
+    /**
+     * Runs {@code load} with quality flags of its own, passes them on to the request bound to the
+     * current thread, and hands the value to {@code put} only when it came fresh from the upstream. A
+     * last known good value from a fallback is served but never cached as if it were new.
+     */
+    static <T> T load(Supplier<T> load, Consumer<T> put) {
+        ResponseQuality quality = new ResponseQuality();
+        T value = BlockingContext.callWith(quality.writeTo(Context.of(BlockingContext.current())), load);
+        if (quality.isDegraded()) {
+            ResponseQuality.flagDegraded();
+        }
+        if (quality.isPartial()) {
+            ResponseQuality.flagPartial();
+        }
+        if (!quality.isDegraded() && !quality.isPartial()) {
+            put.accept(value);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.similarityaggregator.infrastructure.cache;
+
+import com.example.similarityaggregator.application.port.out.BlockingProductDetailPort;
+import com.example.similarityaggregator.domain.model.Product;
+import com.example.similarityaggregator.infrastructure.coalescing.SingleFlight;
+import org.springframework.cache.Cache;
+
+import java.util.Optional;
+
+/**
+ * What the reactive port gets from its decorators and {@code @Cacheable}, for the blocking adapter:
+ * records the read for the response cache, answers from {@code cache}, and lets one call per missing
+ * product through. {@code @Cacheable} cannot do the reading here, because on a blocking method it goes
+ * through the synchronous view of the async loading cache, which loads a missing key through the
+ * refresher, on the cache's executor, before the method is called.
+ */
+public class BlockingReadThroughProductDetailPort implements BlockingProductDetailPort {
+
+    private final BlockingProductDetailPort delegate;
+    private final Cache cache;
+    private final SingleFlight<String, Optional<Product>> singleFlight;
+
+    public BlockingReadThroughProductDetailPort(BlockingProductDetailPort delegate, Cache cache,
+                                                SingleFlight<String, Optional<Product>> singleFlight) {
+        this.delegate = delegate;
+        this.cache = cache;
+        this.singleFlight = singleFlight;
+    }
+
+    @Override
+    public Optional<Product> getProductDetail(String productId) {
+        ResponseDependencies.recordBlocking(cache.getName(), productId);
+
+        Product cached = BlockingCacheReads.lookup(cache, productId, Product.class);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return singleFlight.executeBlocking(productId, () -> BlockingCacheReads.load(
+                () -> delegate.getProductDetail(productId),
+                product -> product.ifPresent(value -> cache.put(productId, value))));
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.similarityaggregator.infrastructure.cache;
+
+import com.example.similarityaggregator.application.port.out.BlockingSimilarProductIdsPort;
+import com.example.similarityaggregator.infrastructure.coalescing.SingleFlight;
+import org.springframework.cache.Cache;
+
+import java.util.List;
+
+/**
+ * Similar ids counterpart of {@link BlockingReadThroughProductDetailPort}.
+ */
+public class BlockingReadThroughSimilarProductIdsPort implements BlockingSimilarProductIdsPort {
+
+    private final BlockingSimilarProductIdsPort delegate;
+    private final Cache cache;
+    private final SingleFlight<String, List<String>> singleFlight;
+
+    public BlockingReadThroughSimilarProductIdsPort(BlockingSimilarProductIdsPort delegate, Cache cache,
+                                                    SingleFlight<String, List<String>> singleFlight) {
+        this.delegate = delegate;
+        this.cache = cache;
+        this.singleFlight = singleFlight;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<String> getSimilarIds(String productId) {
+        ResponseDependencies.recordBlocking(cache.getName(), productId);
+
+        List<String> cached = BlockingCacheReads.lookup(cache, productId, List.class);
+        if (cached != null) {
+            return cached;
+        }
+        return singleFlight.executeBlocking(productId, () -> BlockingCacheReads.load(
+                () -> delegate.getSimilarIds(productId),
+                ids -> cache.put(productId, ids)));
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.similarityaggregator.infrastructure.cache;
+
+/**
+ * Told whenever an entry of a policy cache, or of its not-found companion, is replaced or removed.
+ * Notifications arrive asynchronously, shortly after the change.
+ */
+public interface CacheChangeListener {
+
+    /**
+     * @param cacheName policy cache name; not-found companions report the name of the cache they belong to
+     */
+    void onChange(String cacheName, Object key);
+}
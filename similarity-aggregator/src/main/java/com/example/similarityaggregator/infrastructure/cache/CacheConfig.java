@@ -1,17 +1,28 @@
 package com.example.similarityaggregator.infrastructure.cache;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
 
+import java.util.HashMap;
+import java.util.Map;
 
+/**
+ * Caching advice runs innermost, inside the circuit breaker aspect, so the last known good values its
+ * fallbacks serve are never cached as fresh entries.
+ */
 @Configuration
-@EnableCaching
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE)
+@EnableConfigurationProperties(CachePolicyProperties.class)
 public class CacheConfig {
 
     @Value("${spring.cache.caffeine.spec}")
@@ -20,10 +31,42 @@ public class CacheConfig {
 
     @Bean
     @ConditionalOnProperty(name = "spring.cache.type", havingValue = "caffeine")
-    public CacheManager cacheManager() {
+    public CacheManager cacheManager(CachePolicyProperties cachePolicyProperties,
+                                     ObjectProvider<CacheRefresher> cacheRefreshers,
+                                     ObjectProvider<CacheChangeListener> cacheChangeListeners,
+                                     MeterRegistry meterRegistry) {
         CaffeineCacheManager cacheManager = new CaffeineCacheManager();
         cacheManager.setCaffeine(Caffeine.from(caffeineSpec));
         cacheManager.setAsyncCacheMode(true);
-        return cacheManager;
+
+        Map<String, TwoTierCacheManager.SecondTier> secondTiers = new HashMap<>();
+        cachePolicyProperties.policies().forEach((cacheName, policy) -> {
+            OffHeapStore offHeapStore = policy.offHeap() == null ? null
+                    : new OffHeapStore(cacheName, policy.offHeap().capacity(), policy.hardTtl(), meterRegistry);
+            if (offHeapStore != null) {
+                secondTiers.put(cacheName, new TwoTierCacheManager.SecondTier(offHeapStore, policy.softTtl()));
+            }
+
+            cacheManager.registerCustomCache(cacheName, Caffeine.newBuilder()
+                    .maximumSize(policy.maximumSize())
+                    .refreshAfterWrite(policy.softTtl())
+                    .expireAfterWrite(policy.hardTtl())
+                    .removalListener((key, value, cause) -> notifyChange(cacheChangeListeners, cacheName, key))
+                    .buildAsync(new RefreshAheadLoader(cacheName, cacheRefreshers, offHeapStore)));
+        });
+
+        CachePolicyProperties.NotFoundPolicy notFound = cachePolicyProperties.notFound();
+        cachePolicyProperties.policies().keySet().forEach(cacheName ->
+                cacheManager.registerCustomCache(cacheName + NotFoundCache.CACHE_NAME_SUFFIX, Caffeine.newBuilder()
+                        .maximumSize(notFound.maximumSize())
+                        .expireAfterWrite(notFound.ttl())
+                        .removalListener((key, value, cause) -> notifyChange(cacheChangeListeners, cacheName, key))
+                        .build()));
+
+        return new TwoTierCacheManager(cacheManager, secondTiers);
+    }
+
+    private static void notifyChange(ObjectProvider<CacheChangeListener> listeners, String cacheName, Object key) {
+        listeners.forEach(listener -> listener.onChange(cacheName, key));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,101 @@
+package com.example.similarityaggregator.infrastructure.cache;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+import org.springframework.validation.annotation.Validated;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+@Validated
+@ConfigurationProperties(prefix = "similar-products.cache")
+public record CachePolicyProperties(
+        @Valid Map<String, Policy> policies,
+        @Valid @NotNull NotFoundPolicy notFound,
+        @Valid @NotNull LastKnownGoodPolicy lastKnownGood,
+        @Valid @NotNull ResponsePolicy response,
+        @Valid WarmupPolicy warmup
+) {
+    public CachePolicyProperties {
+        policies = policies == null ? Map.of() : Map.copyOf(policies);
+        warmup = warmup == null ? WarmupPolicy.DISABLED : warmup;
+    }
+
+    /**
+     * @param softTtl age after which a read still returns the cached value but triggers a reload
+     * @param hardTtl age after which the entry is dropped and the next read goes to the upstream
+     * @param offHeap optional second tier behind the on-heap entries
+     */
+    public record Policy(
+            @Positive long maximumSize,
+            @NotNull Duration softTtl,
+            @NotNull Duration hardTtl,
+            @Valid OffHeapPolicy offHeap
+    ) {}
+
+    public record OffHeapPolicy(
+            @NotNull DataSize capacity
+    ) {}
+
+    /**
+     * Applies to the "-not-found" companion of every cache in {@code policies}.
+     */
+    public record NotFoundPolicy(
+            @Positive long maximumSize,
+            @NotNull Duration ttl
+    ) {}
+
+    /**
+     * Retention of the stale copies served by circuit breaker fallbacks, independent of the cache TTLs.
+     */
+    public record LastKnownGoodPolicy(
+            @Positive long maximumSize,
+            @NotNull Duration retention
+    ) {}
+
+    /**
+     * Serialized {@code /product/{id}/similar} bodies. Entries are dropped as soon as one of the cache
+     * entries they were built from changes. A hit never reads those caches, so it never triggers their
+     * soft TTL reload either; keep {@code ttl} close to the soft TTLs.
+     */
+    public record ResponsePolicy(
+            @Positive long maximumSize,
+            @NotNull Duration ttl
+    ) {}
+
+    /**
+     * @param snapshotFile     where the hottest keys of every cache are written and read back on startup;
+     *                         give every instance on a host its own
+     * @param snapshotInterval how often the snapshot is rewritten, 1 minute by default
+     * @param maxKeysPerCache  how many of the hottest keys to keep per cache
+     * @param concurrency      upstream calls in flight while preloading
+     * @param timeout          startup gives up on the preload after this long and starts cold, 20 seconds by default
+     */
+    public record WarmupPolicy(
+            boolean enabled,
+            Path snapshotFile,
+            @NotNull Duration snapshotInterval,
+            @Positive int maxKeysPerCache,
+            @Positive int concurrency,
+            @NotNull Duration timeout
+    ) {
+        static final Duration DEFAULT_SNAPSHOT_INTERVAL = Duration.ofMinutes(1);
+        static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(20);
+        static final WarmupPolicy DISABLED = new WarmupPolicy(false, null, null, 1, 1, null);
+
+        public WarmupPolicy {
+            snapshotInterval = snapshotInterval == null ? DEFAULT_SNAPSHOT_INTERVAL : snapshotInterval;
+            timeout = timeout == null ? DEFAULT_TIMEOUT : timeout;
+        }
+
+        @AssertTrue(message = "snapshot-file is required when the warm-up is enabled")
+        boolean isSnapshotFileSet() {
+            return !enabled || snapshotFile != null;
+        }
+    }
+}
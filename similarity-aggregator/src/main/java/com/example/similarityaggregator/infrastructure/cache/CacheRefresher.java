@@ -0,0 +1,14 @@
+package com.example.similarityaggregator.infrastructure.cache;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Source of fresh values for a cache, called in the background once an entry is older than
+ * its soft TTL. Implementations must bypass the cache they are refreshing.
+ */
+public interface CacheRefresher {
+
+    String cacheName();
+
+    Mono<?> refresh(Object key);
+}
@@ -0,0 +1,96 @@
+package com.example.similarityaggregator.infrastructure.cache;
+
+import com.example.similarityaggregator.domain.model.Product;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Compact binary form of the values held in the cached ports (product details and similar id lists),
+ * copied into the off-heap arena. A leading tag byte tells both shapes apart.
+ */
+final class CacheValueCodec {
+
+    private static final byte PRODUCT = 1;
+    private static final byte STRING_LIST = 2;
+
+    private CacheValueCodec() {
+    }
+
+    static boolean supports(Object value) {
+        return value instanceof Product
+                || value instanceof List<?> list && list.stream().allMatch(String.class::isInstance);
+    }
+
+    static byte[] encode(Object value) {
+        if (value instanceof Product product) {
+            byte[] id = utf8(product.id());
+            byte[] name = utf8(product.name());
+            byte[] price = utf8(product.price().toPlainString());
+            ByteBuffer buffer = ByteBuffer.allocate(1 + sizeOf(id) + sizeOf(name) + sizeOf(price) + 1);
+            buffer.put(PRODUCT);
+            putString(buffer, id);
+            putString(buffer, name);
+            putString(buffer, price);
+            buffer.put((byte) (product.availability() ? 1 : 0));
+            return buffer.array();
+        }
+
+        List<?> strings = (List<?>) value;
+        List<byte[]> encoded = new ArrayList<>(strings.size());
+        int size = 1 + Integer.BYTES;
+        for (Object string : strings) {
+            byte[] bytes = utf8((String) string);
+            encoded.add(bytes);
+            size += sizeOf(bytes);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(STRING_LIST);
+        buffer.putInt(encoded.size());
+        encoded.forEach(bytes -> putString(buffer, bytes));
+        return buffer.array();
+    }
+
+    /**
+     * Reads the value starting at the buffer's current position, without moving the caller's position.
+     */
+    static Object decode(ByteBuffer source) {
+        ByteBuffer buffer = source.duplicate();
+        byte tag = buffer.get();
+        if (tag == PRODUCT) {
+            return new Product(getString(buffer), getString(buffer), new BigDecimal(getString(buffer)), buffer.get() == 1);
+        }
+        if (tag == STRING_LIST) {
+            int size = buffer.getInt();
+            List<String> strings = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                strings.add(getString(buffer));
+            }
+            return Collections.unmodifiableList(strings);
+        }
+        throw new IllegalStateException("Unknown cache value tag: " + tag);
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int sizeOf(byte[] string) {
+        return Integer.BYTES + string.length;
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] string) {
+        buffer.putInt(string.length);
+        buffer.put(string);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.similarityaggregator.infrastructure.cache;
+
+import com.example.similarityaggregator.domain.exception.ProductNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Preloads the keys of the last hot key snapshot before the application reports ready. Runners
+ * complete before readiness switches to accepting traffic, so blocking here keeps the instance out of
+ * rotation until its caches are warm or the warm-up timeout passes.
+ */
+public class CacheWarmer implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheWarmer.class);
+
+    private final CacheManager cacheManager;
+    private final ObjectProvider<CacheRefresher> refreshers;
+    private final CachePolicyProperties.WarmupPolicy policy;
+    private final HotKeySnapshotFile snapshotFile;
+    private final MeterRegistry meterRegistry;
+
+    CacheWarmer(CacheManager cacheManager, ObjectProvider<CacheRefresher> refreshers,
+                CachePolicyProperties.WarmupPolicy policy, HotKeySnapshotFile snapshotFile,
+                MeterRegistry meterRegistry) {
+        this.cacheManager = cacheManager;
+        this.refreshers = refreshers;
+        this.policy = policy;
+        this.snapshotFile = snapshotFile;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Map<String, List<String>> keysByCache;
+        try {
+            keysByCache = snapshotFile.read();
+        } catch (IOException e) {
+            log.warn("Could not read hot key snapshot file={}, starting cold, error={}",
+                    snapshotFile.path(), e.getMessage());
+            return;
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Flux.fromIterable(keysByCache.entrySet())
+                .flatMap(entry -> warm(entry.getKey(), entry.getValue()))
+                .then()
+                .timeout(policy.timeout(), Mono.fromRunnable(() ->
+                        log.warn("Cache warm-up timed out after {}, continuing with what was loaded", policy.timeout())))
+                .block();
+        long nanos = sample.stop(meterRegistry.timer("cache.warmup.duration"));
+
+        log.info("Cache warm-up finished in {}ms", nanos / 1_000_000);
+    }
+
+    private Mono<Void> warm(String cacheName, List<String> keys) {
+        Cache cache = cacheManager.getCache(cacheName);
+        CacheRefresher refresher = refreshers.orderedStream()
+                .filter(candidate -> candidate.cacheName().equals(cacheName))
+                .findFirst()
+                .orElse(null);
+        if (cache == null || refresher == null) {
+            log.debug("Skipping warm-up of unknown cache={}", cacheName);
+            return Mono.empty();
+        }
+
+        return Flux.fromIterable(keys)
+                .flatMap(key -> refresher.refresh(key)
+                        .doOnNext(value -> cache.put(key, value))
+                        .map(value -> "loaded")
+                        .defaultIfEmpty("missing")
+                        .onErrorResume(ProductNotFoundException.class, e -> Mono.just("missing"))
+                        .onErrorResume(e -> Mono.just("failed"))
+                        .doOnNext(result -> meterRegistry.counter("cache.warmup.keys",
+                                "cache", cacheName,
+                                "result", result).increment()), policy.concurrency())
+                .then();
+    }
+}
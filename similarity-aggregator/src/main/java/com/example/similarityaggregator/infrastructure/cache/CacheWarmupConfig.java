@@ -0,0 +1,38 @@
+package com.example.similarityaggregator.infrastructure.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Keeps the hot key set across restarts: snapshots it while running and preloads it on startup,
+ * so a fresh deploy does not send every first request to the upstream.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "similar-products.cache.warmup.enabled", havingValue = "true")
+public class CacheWarmupConfig {
+
+    @Bean
+    HotKeySnapshotFile hotKeySnapshotFile(CachePolicyProperties cachePolicyProperties) {
+        return new HotKeySnapshotFile(cachePolicyProperties.warmup().snapshotFile());
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    HotKeySnapshotter hotKeySnapshotter(CacheManager cacheManager, CachePolicyProperties cachePolicyProperties,
+                                        HotKeySnapshotFile hotKeySnapshotFile) {
+        return new HotKeySnapshotter(cacheManager, cachePolicyProperties, hotKeySnapshotFile);
+    }
+
+    @Bean
+    CacheWarmer cacheWarmer(CacheManager cacheManager, ObjectProvider<CacheRefresher> cacheRefreshers,
+                            CachePolicyProperties cachePolicyProperties, HotKeySnapshotFile hotKeySnapshotFile,
+                            MeterRegistry meterRegistry) {
+        return new CacheWarmer(cacheManager, cacheRefreshers, cachePolicyProperties.warmup(), hotKeySnapshotFile,
+                meterRegistry);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.similarityaggregator.infrastructure.cache;
+
+import com.example.similarityaggregator.application.port.out.ProductDetailPort;
+import com.example.similarityaggregator.domain.model.Product;
+import reactor.core.publisher.Mono;
+
+/**
+ * Records every product detail a request reads as a {@link ResponseDependencies} entry.
+ */
+public class DependencyRecordingProductDetailPort implements ProductDetailPort {
+
+    private final ProductDetailPort delegate;
+    private final String cacheName;
+
+    public DependencyRecordingProductDetailPort(ProductDetailPort delegate, String cacheName) {
+        this.delegate = delegate;
+        this.cacheName = cacheName;
+    }
+
+    @Override
+    public Mono<Product> getProductDetail(String productId) {
+        return ResponseDependencies.record(cacheName, productId, delegate.getProductDetail(productId));
+    }
+}
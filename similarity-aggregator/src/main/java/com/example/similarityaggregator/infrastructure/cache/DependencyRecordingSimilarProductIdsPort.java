@@ -0,0 +1,31 @@
+package com.example.similarityaggregator.infrastructure.cache;
+
+import com.example.similarityaggregator.application.port.out.SimilarProductIdsPort;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Records every similar id list a request reads as a {@link ResponseDependencies} entry.
+ */
+public class DependencyRecordingSimilarProductIdsPort implements SimilarProductIdsPort {
+
+    private final SimilarProductIdsPort delegate;
+    private final String cacheName;
+
+    public DependencyRecordingSimilarProductIdsPort(SimilarProductIdsPort delegate, String cacheName) {
+        this.delegate = delegate;
+        this.cacheName = cacheName;
+    }
+
+    @Override
+    public Mono<List<String>> getSimilarIds(String productId) {
+        return ResponseDependencies.record(cacheName, productId, delegate.getSimilarIds(productId));
+    }
+
+    @Override
+    public Flux<String> streamSimilarIds(String productId) {
+        return ResponseDependencies.record(cacheName, productId, delegate.streamSimilarIds(productId));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.similarityaggregator.infrastructure.cache;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plain text file with one {@code cache<TAB>key} line per entry, hottest keys first. Keys are
+ * URL-encoded so any product id survives the round trip. The file is replaced atomically, so a crash
+ * mid-write leaves the previous snapshot in place.
+ */
+final class HotKeySnapshotFile {
+
+    private static final String SEPARATOR = "\t";
+
+    private final Path path;
+
+    HotKeySnapshotFile(Path path) {
+        this.path = path;
+    }
+
+    Path path() {
+        return path;
+    }
+
+    void write(Map<String, List<String>> keysByCache) throws IOException {
+        List<String> lines = new ArrayList<>();
+        keysByCache.forEach((cacheName, keys) -> keys.forEach(key ->
+                lines.add(cacheName + SEPARATOR + URLEncoder.encode(key, StandardCharsets.UTF_8))));
+
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, lines, StandardCharsets.UTF_8);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * @return keys per cache in the order they were written, empty if there is no snapshot yet
+     */
+    Map<String, List<String>> read() throws IOException {
+        Map<String, List<String>> keysByCache = new LinkedHashMap<>();
+        if (!Files.exists(path)) {
+            return keysByCache;
+        }
+        for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            int separator = line.indexOf(SEPARATOR);
+            if (separator <= 0) {
+                continue;
+            }
+            keysByCache.computeIfAbsent(line.substring(0, separator), name -> new ArrayList<>())
+                    .add(URLDecoder.decode(line.substring(separator + 1), StandardCharsets.UTF_8));
+        }
+        return keysByCache;
+    }
+}
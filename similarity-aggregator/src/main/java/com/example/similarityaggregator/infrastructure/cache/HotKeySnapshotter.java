@@ -0,0 +1,70 @@
+package com.example.similarityaggregator.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Periodically writes the hottest keys of every policy cache to the warm-up snapshot, and once more
+ * on shutdown so a rolling deploy picks up the most recent set.
+ */
+public class HotKeySnapshotter {
+
+    private static final Logger log = LoggerFactory.getLogger(HotKeySnapshotter.class);
+
+    private final CacheManager cacheManager;
+    private final CachePolicyProperties cachePolicyProperties;
+    private final HotKeySnapshotFile snapshotFile;
+
+    HotKeySnapshotter(CacheManager cacheManager, CachePolicyProperties cachePolicyProperties,
+                      HotKeySnapshotFile snapshotFile) {
+        this.cacheManager = cacheManager;
+        this.cachePolicyProperties = cachePolicyProperties;
+        this.snapshotFile = snapshotFile;
+    }
+
+    @Scheduled(initialDelayString = "${similar-products.cache.warmup.snapshot-interval:1m}",
+            fixedDelayString = "${similar-products.cache.warmup.snapshot-interval:1m}")
+    public void snapshot() {
+        Map<String, List<String>> keysByCache = new LinkedHashMap<>();
+        cachePolicyProperties.policies().keySet().forEach(cacheName ->
+                keysByCache.put(cacheName, hottestKeys(cacheName)));
+
+        if (keysByCache.values().stream().allMatch(List::isEmpty)) {
+            // Nothing served yet, keep the previous snapshot for the next start
+            return;
+        }
+        try {
+            snapshotFile.write(keysByCache);
+            log.debug("Wrote hot key snapshot file={}, keys={}", snapshotFile.path(), keysByCache.values().stream()
+                    .mapToInt(List::size)
+                    .sum());
+        } catch (IOException e) {
+            log.warn("Could not write hot key snapshot file={}, error={}", snapshotFile.path(), e.getMessage());
+        }
+    }
+
+    void shutdown() {
+        snapshot();
+    }
+
+    private List<String> hottestKeys(String cacheName) {
+        org.springframework.cache.Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null || !(cache.getNativeCache() instanceof Cache<?, ?> nativeCache)) {
+            return List.of();
+        }
+        int limit = cachePolicyProperties.warmup().maxKeysPerCache();
+        return nativeCache.policy().eviction()
+                .map(eviction -> eviction.hottest(limit).keySet().stream()
+                        .map(String::valueOf)
+                        .toList())
+                .orElse(List.of());
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.similarityaggregator.infrastructure.cache;
+
+import com.example.similarityaggregator.application.context.ResponseQuality;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Long-lived copy of the last successful upstream answer per key, kept apart from the hot caches so
+ * their eviction does not affect it. Circuit breaker fallbacks use it to answer with stale data
+ * instead of failing while the upstream is down.
+ */
+@Component
+public class LastKnownGoodStore {
+
+    private final Map<String, Cache<String, Object>> stores = new ConcurrentHashMap<>();
+    private final CachePolicyProperties.LastKnownGoodPolicy policy;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public LastKnownGoodStore(CachePolicyProperties cachePolicyProperties, MeterRegistry meterRegistry) {
+        this(cachePolicyProperties.lastKnownGood(), meterRegistry);
+    }
+
+    public LastKnownGoodStore(CachePolicyProperties.LastKnownGoodPolicy policy, MeterRegistry meterRegistry) {
+        this.policy = policy;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void remember(String cacheName, String key, Object value) {
+        storeFor(cacheName).put(key, value);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> recall(String cacheName, String key) {
+        T value = (T) storeFor(cacheName).getIfPresent(key);
+        meterRegistry.counter("last.known.good.recalls",
+                "cache", cacheName,
+                "result", value != null ? "hit" : "miss").increment();
+
+        return value != null ? ResponseQuality.markDegraded(Mono.just(value)) : Mono.empty();
+    }
+
+    /**
+     * {@link #recall} for blocking callers; flags the request bound to the current thread.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Optional<T> recallBlocking(String cacheName, String key) {
+        T value = (T) storeFor(cacheName).getIfPresent(key);
+        meterRegistry.counter("last.known.good.recalls",
+                "cache", cacheName,
+                "result", value != null ? "hit" : "miss").increment();
+
+        if (value != null) {
+            ResponseQuality.flagDegraded();
+        }
+        return Optional.ofNullable(value);
+    }
+
+    public void clear() {
+        stores.values().forEach(Cache::invalidateAll);
+    }
+
+    private Cache<String, Object> storeFor(String cacheName) {
+        return stores.computeIfAbsent(cacheName, name -> Caffeine.newBuilder()
+                .maximumSize(policy.maximumSize())
+                .expireAfterWrite(policy.retention())
+                .build());
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.similarityaggregator.infrastructure.cache;
+
+import com.example.similarityaggregator.domain.exception.ProductNotFoundException;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+/**
+ * Remembers products the upstream answered with 404, in a "{cacheName}-not-found" cache next to
+ * the regular one. {@code @Cacheable} does not store errors, so without this every request for an
+ * unknown product would go back to the upstream.
+ */
+@Component
+public class NotFoundCache {
+
+    public static final String CACHE_NAME_SUFFIX = "-not-found";
+
+    private final CacheManager cacheManager;
+
+    public NotFoundCache(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    public <T> Mono<T> guard(String cacheName, String productId, Supplier<Mono<T>> call) {
+        Cache cache = cacheManager.getCache(cacheName + CACHE_NAME_SUFFIX);
+        if (cache == null) {
+            return call.get();
+        }
+        if (cache.get(productId) != null) {
+            return Mono.error(new ProductNotFoundException(productId));
+        }
+        return call.get()
+                .doOnError(ProductNotFoundException.class, e -> cache.put(productId, Boolean.TRUE));
+    }
+
+    public <T> Flux<T> guardMany(String cacheName, String productId, Supplier<Flux<T>> call) {
+        Cache cache = cacheManager.getCache(cacheName + CACHE_NAME_SUFFIX);
+        if (cache == null) {
+            return call.get();
+        }
+        if (cache.get(productId) != null) {
+            return Flux.error(new ProductNotFoundException(productId));
+        }
+        return call.get()
+                .doOnError(ProductNotFoundException.class, e -> cache.put(productId, Boolean.TRUE));
+    }
+
+    public <T> T guardBlocking(String cacheName, String productId, Supplier<T> call) {
+        Cache cache = cacheManager.getCache(cacheName + CACHE_NAME_SUFFIX);
+        if (cache == null) {
+            return call.get();
+        }
+        if (cache.get(productId) != null) {
+            throw new ProductNotFoundException(productId);
+        }
+        try {
+            return call.get();
+        } catch (ProductNotFoundException e) {
+            cache.put(productId, Boolean.TRUE);
+            throw e;
+        }
+    }
+}
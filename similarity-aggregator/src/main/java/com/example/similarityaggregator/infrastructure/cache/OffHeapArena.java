@@ -0,0 +1,195 @@
+package com.example.similarityaggregator.infrastructure.cache;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Native memory for the {@link OffHeapStore}, carved out of a few large direct buffers (slabs) that
+ * are allocated on first use and kept for the life of the application. Blocks come in power-of-two
+ * sizes and are handed out buddy-style: a larger free block is split to serve a smaller request, and a
+ * freed block merges with its free buddy again, so memory freed by small entries can serve large ones
+ * later. Free blocks are linked through the blocks themselves, so neither allocating nor freeing
+ * creates objects or waits for the garbage collector. Which blocks are free is tracked on the heap, in
+ * one byte per {@link #MIN_BLOCK} bytes of slab.
+ * <p>
+ * Addresses pack the slab index into the high and the offset into the low 32 bits. Not thread-safe:
+ * the store guards it with its own lock.
+ */
+final class OffHeapArena {
+
+    static final int MIN_BLOCK = 32;
+    static final int SLAB_SIZE = 16 * 1024 * 1024;
+
+    private static final long NONE = -1;
+    // Free list links at the start of a free block
+    private static final int NEXT = 0;
+    private static final int PREVIOUS = Long.BYTES;
+
+    private final ByteBuffer[] slabs;
+    // Per slab and MIN_BLOCK unit: 1 + the size class of the free block starting there, 0 otherwise
+    private final byte[][] freeBlocks;
+    private final long capacity;
+    private final long[] freeLists;
+    private final int largestBlock;
+
+    private int allocatedSlabs;
+    private volatile long reserved;
+
+    OffHeapArena(long capacity) {
+        this.capacity = capacity;
+        this.slabs = new ByteBuffer[(int) ((capacity + SLAB_SIZE - 1) / SLAB_SIZE)];
+        this.freeBlocks = new byte[slabs.length][];
+        this.freeLists = new long[sizeClass(SLAB_SIZE) + 1];
+        this.largestBlock = (int) Math.min(SLAB_SIZE, Long.highestOneBit(capacity));
+        Arrays.fill(freeLists, NONE);
+    }
+
+    /**
+     * Bytes a value of {@code size} bytes takes up in the arena.
+     */
+    static int blockSize(int size) {
+        return Math.max(MIN_BLOCK, Integer.highestOneBit(size - 1) << 1);
+    }
+
+    /**
+     * Whether a value of {@code size} bytes could be stored at all once enough blocks are freed.
+     */
+    boolean fits(int size) {
+        return size > 0 && size <= largestBlock;
+    }
+
+    /**
+     * @return the address of a block of at least {@code size} bytes, or {@code -1} when no free block is
+     * large enough
+     */
+    long allocate(int size) {
+        if (!fits(size)) {
+            return NONE;
+        }
+        int sizeClass = sizeClass(blockSize(size));
+        int freeClass = smallestFreeClass(sizeClass);
+        while (freeClass < 0 && allocatedSlabs < slabs.length) {
+            allocateSlab();
+            freeClass = smallestFreeClass(sizeClass);
+        }
+        if (freeClass < 0) {
+            return NONE;
+        }
+        long address = freeLists[freeClass];
+        unlink(address, freeClass);
+        // Keep the first half and free the second until the block is the requested size
+        while (freeClass > sizeClass) {
+            freeClass--;
+            link(address + (MIN_BLOCK << freeClass), freeClass);
+        }
+        return address;
+    }
+
+    void free(long address, int size) {
+        int slab = (int) (address >>> 32);
+        int offset = offset(address);
+        int sizeClass = sizeClass(blockSize(size));
+        while (sizeClass < freeLists.length - 1) {
+            int blockSize = MIN_BLOCK << sizeClass;
+            int buddy = offset ^ blockSize;
+            int merged = Math.min(offset, buddy);
+            if (merged + 2L * blockSize > slabs[slab].capacity()
+                    || freeBlocks[slab][buddy / MIN_BLOCK] != sizeClass + 1) {
+                break;
+            }
+            unlink(address(slab, buddy), sizeClass);
+            offset = merged;
+            sizeClass++;
+        }
+        link(address(slab, offset), sizeClass);
+    }
+
+    /**
+     * The {@code size} bytes at {@code address}, as a buffer of their own starting at position 0.
+     */
+    ByteBuffer view(long address, int size) {
+        int offset = offset(address);
+        return slab(address).slice(offset, size);
+    }
+
+    /**
+     * Native memory taken by the slabs allocated so far.
+     */
+    long reserved() {
+        return reserved;
+    }
+
+    /**
+     * Allocates the next slab and frees it as the largest aligned blocks that cover it.
+     */
+    private void allocateSlab() {
+        int index = allocatedSlabs++;
+        int slabSize = (int) Math.min(SLAB_SIZE, capacity - (long) index * SLAB_SIZE);
+        slabs[index] = ByteBuffer.allocateDirect(slabSize);
+        freeBlocks[index] = new byte[slabSize / MIN_BLOCK];
+        reserved += slabSize;
+
+        int offset = 0;
+        int remaining = slabSize - slabSize % MIN_BLOCK;
+        while (remaining > 0) {
+            int blockSize = Integer.highestOneBit(remaining);
+            link(address(index, offset), sizeClass(blockSize));
+            offset += blockSize;
+            remaining -= blockSize;
+        }
+    }
+
+    private int smallestFreeClass(int sizeClass) {
+        for (int candidate = sizeClass; candidate < freeLists.length; candidate++) {
+            if (freeLists[candidate] != NONE) {
+                return candidate;
+            }
+        }
+        return -1;
+    }
+
+    private void link(long address, int sizeClass) {
+        ByteBuffer slab = slab(address);
+        int offset = offset(address);
+        long head = freeLists[sizeClass];
+        slab.putLong(offset + NEXT, head);
+        slab.putLong(offset + PREVIOUS, NONE);
+        if (head != NONE) {
+            slab(head).putLong(offset(head) + PREVIOUS, address);
+        }
+        freeLists[sizeClass] = address;
+        freeBlocks[(int) (address >>> 32)][offset / MIN_BLOCK] = (byte) (sizeClass + 1);
+    }
+
+    private void unlink(long address, int sizeClass) {
+        ByteBuffer slab = slab(address);
+        int offset = offset(address);
+        long next = slab.getLong(offset + NEXT);
+        long previous = slab.getLong(offset + PREVIOUS);
+        if (previous != NONE) {
+            slab(previous).putLong(offset(previous) + NEXT, next);
+        } else {
+            freeLists[sizeClass] = next;
+        }
+        if (next != NONE) {
+            slab(next).putLong(offset(next) + PREVIOUS, previous);
+        }
+        freeBlocks[(int) (address >>> 32)][offset / MIN_BLOCK] = 0;
+    }
+
+    private ByteBuffer slab(long address) {
+        return slabs[(int) (address >>> 32)];
+    }
+
+    private static long address(int slab, int offset) {
+        return ((long) slab << 32) | offset;
+    }
+
+    private static int offset(long address) {
+        return (int) address;
+    }
+
+    private static int sizeClass(int blockSize) {
+        return Integer.numberOfTrailingZeros(blockSize / MIN_BLOCK);
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.similarityaggregator.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Second cache tier holding serialized values in an {@link OffHeapArena}, so a large hot set does not
+ * add to the heap the garbage collector has to walk. Capacity is bounded by the arena bytes entries
+ * take up; Caffeine only keeps the index (key to block address) and picks the entries to evict, and
+ * an evicted entry's block is freed as soon as Caffeine reports the removal.
+ * <p>
+ * Caffeine evicts by weight in the background, so a burst of writes, or a block size no free memory
+ * matches, can still find the arena full. The write then evicts the coldest entries itself until its
+ * block fits, instead of being dropped while cold entries hold the memory.
+ */
+final class OffHeapStore {
+
+    // Time of the write, in System.nanoTime(), ahead of the encoded value
+    private static final int HEADER = Long.BYTES;
+
+    private final OffHeapArena arena;
+    // Readers hold the read lock while they copy out of a block, so it is not freed and reused meanwhile
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Cache<Object, Slot> index;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter rejected;
+
+    OffHeapStore(String cacheName, DataSize capacity, Duration ttl, MeterRegistry meterRegistry) {
+        this.arena = new OffHeapArena(capacity.toBytes());
+        this.index = Caffeine.newBuilder()
+                .maximumWeight(capacity.toBytes())
+                .weigher((Object key, Slot slot) -> OffHeapArena.blockSize(slot.size()))
+                .expireAfterWrite(ttl)
+                .removalListener((Object key, Slot slot, RemovalCause cause) -> release(slot))
+                .build();
+        this.hits = Counter.builder("cache.l2.gets")
+                .tag("cache", cacheName)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("cache.l2.gets")
+                .tag("cache", cacheName)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("cache.l2.rejected")
+                .description("Writes dropped because the arena had no free block of the needed size")
+                .tag("cache", cacheName)
+                .register(meterRegistry);
+        Gauge.builder("cache.l2.size", index, cache -> cache.policy().eviction()
+                        .map(eviction -> eviction.weightedSize().orElse(0))
+                        .orElse(0L))
+                .tag("cache", cacheName)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("cache.l2.reserved", arena, OffHeapArena::reserved)
+                .tag("cache", cacheName)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    void put(Object key, Object value) {
+        if (!CacheValueCodec.supports(value)) {
+            return;
+        }
+        byte[] encoded = CacheValueCodec.encode(value);
+        int size = HEADER + encoded.length;
+        long address = write(encoded, size);
+        while (address < 0 && arena.fits(size) && evictColdest()) {
+            address = write(encoded, size);
+        }
+        if (address < 0) {
+            rejected.increment();
+            // An older value must not outlive the write that replaced it
+            index.invalidate(key);
+            return;
+        }
+        index.put(key, new Slot(address, size));
+    }
+
+    Entry get(Object key) {
+        long writtenAt;
+        Object value;
+        lock.readLock().lock();
+        try {
+            Slot slot = index.getIfPresent(key);
+            if (slot == null) {
+                misses.increment();
+                return null;
+            }
+            ByteBuffer block = arena.view(slot.address(), slot.size());
+            writtenAt = block.getLong(0);
+            value = CacheValueCodec.decode(block.position(HEADER));
+        } finally {
+            lock.readLock().unlock();
+        }
+        hits.increment();
+        return new Entry(value, Duration.ofNanos(System.nanoTime() - writtenAt));
+    }
+
+    void evict(Object key) {
+        index.invalidate(key);
+    }
+
+    void clear() {
+        index.invalidateAll();
+    }
+
+    /**
+     * @return the address {@code encoded} was written to, or {@code -1} when no free block is large enough
+     */
+    private long write(byte[] encoded, int size) {
+        lock.writeLock().lock();
+        try {
+            long address = arena.allocate(size);
+            if (address >= 0) {
+                arena.view(address, size)
+                        .putLong(System.nanoTime())
+                        .put(encoded);
+            }
+            return address;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops the coldest entry and frees its block right away, rather than when Caffeine reports it.
+     *
+     * @return false when there is nothing left to evict
+     */
+    private boolean evictColdest() {
+        Map<Object, Slot> coldest = index.policy().eviction()
+                .map(eviction -> eviction.coldest(1))
+                .orElse(Map.of());
+        if (coldest.isEmpty()) {
+            return false;
+        }
+        coldest.forEach((key, slot) -> {
+            if (index.asMap().remove(key, slot)) {
+                release(slot);
+            }
+        });
+        return true;
+    }
+
+    private void release(Slot slot) {
+        // Freed once, by whichever comes first of an eviction here and Caffeine's removal listener
+        if (!slot.released.compareAndSet(false, true)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            arena.free(slot.address(), slot.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    record Entry(Object value, Duration age) {}
+
+    private record Slot(long address, int size, AtomicBoolean released) {
+
+        Slot(long address, int size) {
+            this(address, size, new AtomicBoolean());
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.similarityaggregator.infrastructure.cache;
+
+import com.example.similarityaggregator.domain.exception.ProductNotFoundException;
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Reloads entries past their soft TTL through the {@link CacheRefresher} registered for the cache.
+ * A product that disappeared upstream drops the entry; any other failure keeps serving the stale value
+ * until the hard TTL.
+ */
+class RefreshAheadLoader implements AsyncCacheLoader<Object, Object> {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshAheadLoader.class);
+
+    private final String cacheName;
+    private final ObjectProvider<CacheRefresher> refreshers;
+    private final OffHeapStore secondTier;
+
+    /**
+     * @param secondTier off-heap tier to keep in step with reloaded values, or {@code null}
+     */
+    RefreshAheadLoader(String cacheName, ObjectProvider<CacheRefresher> refreshers, OffHeapStore secondTier) {
+        this.cacheName = cacheName;
+        this.refreshers = refreshers;
+        this.secondTier = secondTier;
+    }
+
+    @Override
+    public CompletableFuture<?> asyncLoad(Object key, Executor executor) {
+        return refresherFor()
+                .map(refresher -> refresher.refresh(key).toFuture())
+                .orElseGet(() -> CompletableFuture.completedFuture(null));
+    }
+
+    @Override
+    public CompletableFuture<?> asyncReload(Object key, Object oldValue, Executor executor) {
+        log.debug("Refreshing stale entry cache={}, key={}", cacheName, key);
+
+        return refresherFor()
+                .map(refresher -> refresher.refresh(key)
+                        .cast(Object.class)
+                        .doOnNext(value -> {
+                            if (secondTier != null) {
+                                secondTier.put(key, value);
+                            }
+                        })
+                        .onErrorResume(ProductNotFoundException.class, e -> {
+                            if (secondTier != null) {
+                                secondTier.evict(key);
+                            }
+                            return Mono.empty();
+                        })
+                        // A failed reload leaves the entry and its write time alone, so the hard TTL still applies;
+                        // completing with the old value would count as a fresh write and keep it forever
+                        .doOnError(e -> log.warn("Refresh failed, keeping stale entry cache={}, key={}, error={}",
+                                cacheName, key, e.getMessage()))
+                        .toFuture())
+                .orElseGet(() -> CompletableFuture.completedFuture(oldValue));
+    }
+
+    private Optional<CacheRefresher> refresherFor() {
+        return refreshers.orderedStream()
+                .filter(refresher -> refresher.cacheName().equals(cacheName))
+                .findFirst();
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.similarityaggregator.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Final JSON bodies of {@code /product/{id}/similar}, so a request whose inputs have not changed is
+ * answered without touching the use case, the mappers or Jackson.
+ * <p>
+ * Instead of tracking which bodies to drop, every cache change stamps its key with a new version and
+ * a body is only served while all of its dependencies are older than the request that built it. That
+ * also covers changes landing while the body was being built. Only registered when the Caffeine
+ * caches are, since without them nothing reports changes.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.cache.type", havingValue = "caffeine")
+public class ResponseCache implements CacheChangeListener {
+
+    private final Cache<String, CachedResponse> responses;
+    private final Cache<String, Long> changedAt;
+    private final AtomicLong clock = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter invalidated;
+
+    @Autowired
+    public ResponseCache(CachePolicyProperties cachePolicyProperties, MeterRegistry meterRegistry) {
+        this(cachePolicyProperties.response(), meterRegistry);
+    }
+
+    public ResponseCache(CachePolicyProperties.ResponsePolicy policy, MeterRegistry meterRegistry) {
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(policy.maximumSize())
+                .expireAfterWrite(policy.ttl())
+                .build();
+        // A change older than any live response cannot invalidate it, so versions can expire with them
+        this.changedAt = Caffeine.newBuilder()
+                .expireAfterWrite(policy.ttl())
+                .build();
+        this.hits = counter(meterRegistry, "hit");
+        this.misses = counter(meterRegistry, "miss");
+        this.invalidated = counter(meterRegistry, "invalidated");
+    }
+
+    /**
+     * @return the serialized body, or {@code null} if there is none or one of its inputs changed since
+     */
+    public byte[] get(String productId) {
+        CachedResponse response = responses.getIfPresent(productId);
+        if (response == null) {
+            misses.increment();
+            return null;
+        }
+        if (changedSince(response.dependencies(), response.builtAt())) {
+            responses.asMap().remove(productId, response);
+            invalidated.increment();
+            return null;
+        }
+        hits.increment();
+        return response.body();
+    }
+
+    /**
+     * Starts collecting the dependencies of a response about to be built.
+     */
+    public ResponseDependencies begin() {
+        return new ResponseDependencies(clock.get());
+    }
+
+    public void put(String productId, byte[] body, ResponseDependencies dependencies) {
+        Set<String> keys = Set.copyOf(dependencies.keys());
+        if (!changedSince(keys, dependencies.startedAt())) {
+            responses.put(productId, new CachedResponse(body, keys, dependencies.startedAt()));
+        }
+    }
+
+    @Override
+    public void onChange(String cacheName, Object key) {
+        changedAt.put(ResponseDependencies.dependencyKey(cacheName, key), clock.incrementAndGet());
+    }
+
+    public void clear() {
+        responses.invalidateAll();
+    }
+
+    private boolean changedSince(Set<String> dependencies, long builtAt) {
+        for (String dependency : dependencies) {
+            Long version = changedAt.getIfPresent(dependency);
+            if (version != null && version > builtAt) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("response.cache.gets")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record CachedResponse(byte[] body, Set<String> dependencies, long builtAt) {}
+}
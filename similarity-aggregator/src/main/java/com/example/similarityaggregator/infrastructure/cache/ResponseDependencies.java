@@ -0,0 +1,96 @@
+package com.example.similarityaggregator.infrastructure.cache;
+
+import com.example.similarityaggregator.application.context.BlockingContext;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache entries a response was built from, collected through the Reactor context while the request
+ * runs. Created by {@link ResponseCache#begin()}, which also stamps when the request started.
+ */
+public final class ResponseDependencies {
+
+    private static final Class<ResponseDependencies> CONTEXT_KEY = ResponseDependencies.class;
+
+    private final Set<String> keys = ConcurrentHashMap.newKeySet();
+    private volatile long startedAt;
+
+    ResponseDependencies(long startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    long startedAt() {
+        return startedAt;
+    }
+
+    Set<String> keys() {
+        return keys;
+    }
+
+    public Context writeTo(Context context) {
+        return context.put(CONTEXT_KEY, this);
+    }
+
+    public static Optional<ResponseDependencies> from(ContextView context) {
+        return context.getOrEmpty(CONTEXT_KEY);
+    }
+
+    /**
+     * An empty collector started at the same time as this one, for work shared with other requests
+     * (single-flight); {@link #include} then adds what it read to every request sharing it.
+     */
+    public ResponseDependencies fork() {
+        return new ResponseDependencies(startedAt);
+    }
+
+    /**
+     * Notes that the current request reads {@code key} of {@code cacheName}, whether it ends up a hit,
+     * a miss or not found.
+     */
+    public static <T> Mono<T> record(String cacheName, Object key, Mono<T> value) {
+        return Mono.deferContextual(context -> {
+            from(context).ifPresent(dependencies -> dependencies.keys.add(dependencyKey(cacheName, key)));
+            return value;
+        });
+    }
+
+    public static <T> Flux<T> record(String cacheName, Object key, Flux<T> values) {
+        return Flux.deferContextual(context -> {
+            from(context).ifPresent(dependencies -> dependencies.keys.add(dependencyKey(cacheName, key)));
+            return values;
+        });
+    }
+
+    /**
+     * {@link #record} for the blocking request bound to the current thread.
+     */
+    public static void recordBlocking(String cacheName, Object key) {
+        from(BlockingContext.current()).ifPresent(dependencies -> dependencies.keys.add(dependencyKey(cacheName, key)));
+    }
+
+    /**
+     * Adds what shared work read to the current request. The request then counts as started when the
+     * shared work did, so a change in between still keeps the response out of the cache.
+     */
+    public static <T> Mono<T> include(ResponseDependencies shared, Mono<T> value) {
+        return Mono.deferContextual(context -> {
+            from(context).ifPresent(dependencies -> dependencies.absorb(shared));
+            return value;
+        });
+    }
+
+    private synchronized void absorb(ResponseDependencies shared) {
+        keys.addAll(shared.keys);
+        startedAt = Math.min(startedAt, shared.startedAt);
+    }
+
+    static String dependencyKey(String cacheName, Object key) {
+        return cacheName + ':' + key;
+    }
+}
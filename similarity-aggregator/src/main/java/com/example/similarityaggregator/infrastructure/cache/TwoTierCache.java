@@ -0,0 +1,157 @@
+package com.example.similarityaggregator.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.NullValue;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Caffeine L1 backed by an {@link OffHeapStore} L2. Writes go to both tiers; an L1 miss that hits
+ * L2 is promoted back into L1. Promoted entries older than the soft TTL are refreshed right away,
+ * so the second tier does not stretch how stale a served value can be.
+ */
+class TwoTierCache implements Cache {
+
+    private final CaffeineCache l1;
+    private final OffHeapStore l2;
+    private final Duration softTtl;
+
+    TwoTierCache(CaffeineCache l1, OffHeapStore l2, Duration softTtl) {
+        this.l1 = l1;
+        this.l2 = l2;
+        this.softTtl = softTtl;
+    }
+
+    @Override
+    public String getName() {
+        return l1.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return l1.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        // Peek instead of l1.get(key): on a loading cache that would go upstream before L2 is consulted
+        Object cached = l1.getNativeCache().getIfPresent(key);
+        if (cached != null) {
+            return new SimpleValueWrapper(cached == NullValue.INSTANCE ? null : cached);
+        }
+        Object promoted = promote(key);
+        return promoted != null ? new SimpleValueWrapper(promoted) : null;
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return type != null ? type.cast(value) : null;
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return l1.get(key, () -> {
+            OffHeapStore.Entry entry = l2.get(key);
+            if (entry != null) {
+                @SuppressWarnings("unchecked")
+                T value = (T) entry.value();
+                return value;
+            }
+            T value = valueLoader.call();
+            l2.put(key, value);
+            return value;
+        });
+    }
+
+    @Override
+    public CompletableFuture<?> retrieve(Object key) {
+        CompletableFuture<?> cached = l1.retrieve(key);
+        if (cached != null) {
+            return cached;
+        }
+        Object promoted = promote(key);
+        return promoted != null ? CompletableFuture.completedFuture(new SimpleValueWrapper(promoted)) : null;
+    }
+
+    @Override
+    public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+        return l1.retrieve(key, () -> {
+            OffHeapStore.Entry entry = l2.get(key);
+            if (entry != null) {
+                @SuppressWarnings("unchecked")
+                T value = (T) entry.value();
+                return CompletableFuture.completedFuture(value);
+            }
+            return valueLoader.get().thenApply(value -> {
+                l2.put(key, value);
+                return value;
+            });
+        });
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        l1.put(key, value);
+        l2.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = get(key);
+        if (existing != null) {
+            return existing;
+        }
+        put(key, value);
+        return null;
+    }
+
+    @Override
+    public void evict(Object key) {
+        l1.evict(key);
+        l2.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = l1.evictIfPresent(key);
+        l2.evict(key);
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        l1.clear();
+        l2.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean present = l1.invalidate();
+        l2.clear();
+        return present;
+    }
+
+    private Object promote(Object key) {
+        OffHeapStore.Entry entry = l2.get(key);
+        if (entry == null) {
+            return null;
+        }
+        l1.put(key, entry.value());
+        if (entry.age().compareTo(softTtl) > 0
+                && l1.getAsyncCache() instanceof AsyncLoadingCache<Object, Object> loading) {
+            loading.synchronous().refresh(key);
+        }
+        return entry.value();
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.similarityaggregator.infrastructure.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Exposes the Caffeine caches, wrapping the ones that have an off-heap second tier in a
+ * {@link TwoTierCache}, so {@code @Cacheable} keeps working unchanged.
+ */
+class TwoTierCacheManager implements CacheManager {
+
+    private final CaffeineCacheManager firstTier;
+    private final Map<String, SecondTier> secondTiers;
+    private final Map<String, Cache> twoTierCaches = new ConcurrentHashMap<>();
+
+    TwoTierCacheManager(CaffeineCacheManager firstTier, Map<String, SecondTier> secondTiers) {
+        this.firstTier = firstTier;
+        this.secondTiers = Map.copyOf(secondTiers);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = firstTier.getCache(name);
+        SecondTier secondTier = secondTiers.get(name);
+        if (cache == null || secondTier == null) {
+            return cache;
+        }
+        return twoTierCaches.computeIfAbsent(name, key ->
+                new TwoTierCache((CaffeineCache) cache, secondTier.store(), secondTier.softTtl()));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return firstTier.getCacheNames();
+    }
+
+    record SecondTier(OffHeapStore store, Duration softTtl) {}
+}
@@ -0,0 +1,94 @@
+package com.example.similarityaggregator.infrastructure.coalescing;
+
+import com.example.similarityaggregator.application.port.in.GetSimilarProductsUseCase;
+import com.example.similarityaggregator.application.port.out.BlockingProductDetailPort;
+import com.example.similarityaggregator.application.port.out.BlockingSimilarProductIdsPort;
+import com.example.similarityaggregator.application.port.out.ProductDetailPort;
+import com.example.similarityaggregator.application.port.out.SimilarProductIdsPort;
+import com.example.similarityaggregator.infrastructure.cache.BlockingReadThroughProductDetailPort;
+import com.example.similarityaggregator.infrastructure.cache.BlockingReadThroughSimilarProductIdsPort;
+import com.example.similarityaggregator.infrastructure.cache.DependencyRecordingProductDetailPort;
+import com.example.similarityaggregator.infrastructure.cache.DependencyRecordingSimilarProductIdsPort;
+import com.example.similarityaggregator.infrastructure.rest.adapter.out.ProductDetailRestAdapter;
+import com.example.similarityaggregator.infrastructure.rest.adapter.out.SimilarProductIdsRestAdapter;
+import com.example.similarityaggregator.infrastructure.rest.config.SimilarProductsApiProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Puts a single-flight layer in front of the outbound adapters, so concurrent misses for the
+ * same product only reach the upstream once. Product details missing from the cache and requested
+ * within a short window are also gathered into one batch before that. The outermost layer records what each request read,
+ * for the response cache; it sits outside the single flight so coalesced requests record too.
+ * <p>
+ * Identical requests are coalesced at the use case as well, outside admission control, so requests
+ * waiting for an aggregation already running do not take a slot of their own.
+ * <p>
+ * The blocking adapters get the same cache, single flight and recording in one blocking layer, without
+ * the batching window.
+ */
+@Configuration
+public class CoalescingConfig {
+
+    @Bean
+    @Primary
+    @Profile("!blocking")
+    public ProductDetailPort coalescingProductDetailPort(@Qualifier("productDetailAdapter") ProductDetailPort adapter,
+                                                         CacheManager cacheManager,
+                                                         SimilarProductsApiProperties properties,
+                                                         MeterRegistry meterRegistry) {
+        return new DependencyRecordingProductDetailPort(
+                new MicroBatchingProductDetailPort(
+                        new CoalescingProductDetailPort(adapter, new SingleFlight<>("product-detail", meterRegistry)),
+                        cacheManager.getCache(ProductDetailRestAdapter.CACHE_NAME), properties.batching(), meterRegistry),
+                ProductDetailRestAdapter.CACHE_NAME);
+    }
+
+    @Bean
+    @Primary
+    @Profile("!blocking")
+    public SimilarProductIdsPort coalescingSimilarProductIdsPort(@Qualifier("similarIdsAdapter") SimilarProductIdsPort adapter,
+                                                                 MeterRegistry meterRegistry) {
+        return new DependencyRecordingSimilarProductIdsPort(
+                new CoalescingSimilarProductIdsPort(adapter, new SingleFlight<>("similar-ids", meterRegistry),
+                        new SingleFlight<>("similar-ids-stream", meterRegistry)),
+                SimilarProductIdsRestAdapter.CACHE_NAME);
+    }
+
+    @Bean
+    @Primary
+    @Profile("blocking")
+    public BlockingProductDetailPort readThroughProductDetailPort(
+            @Qualifier("productDetailAdapter") BlockingProductDetailPort adapter,
+            CacheManager cacheManager,
+            MeterRegistry meterRegistry) {
+        return new BlockingReadThroughProductDetailPort(adapter,
+                cacheManager.getCache(ProductDetailRestAdapter.CACHE_NAME),
+                new SingleFlight<>("product-detail", meterRegistry));
+    }
+
+    @Bean
+    @Primary
+    @Profile("blocking")
+    public BlockingSimilarProductIdsPort readThroughSimilarProductIdsPort(
+            @Qualifier("similarIdsAdapter") BlockingSimilarProductIdsPort adapter,
+            CacheManager cacheManager,
+            MeterRegistry meterRegistry) {
+        return new BlockingReadThroughSimilarProductIdsPort(adapter,
+                cacheManager.getCache(SimilarProductIdsRestAdapter.CACHE_NAME),
+                new SingleFlight<>("similar-ids", meterRegistry));
+    }
+
+    @Bean
+    @Primary
+    public GetSimilarProductsUseCase coalescingGetSimilarProductsUseCase(
+            @Qualifier("admissionControlledGetSimilarProductsUseCase") GetSimilarProductsUseCase useCase,
+            MeterRegistry meterRegistry) {
+        return new CoalescingGetSimilarProductsUseCase(useCase, new SingleFlight<>("similar-products", meterRegistry));
+    }
+}
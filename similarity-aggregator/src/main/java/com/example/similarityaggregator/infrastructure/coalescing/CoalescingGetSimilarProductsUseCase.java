@@ -0,0 +1,81 @@
+package com.example.similarityaggregator.infrastructure.coalescing;
+
+import com.example.similarityaggregator.application.context.ResponseQuality;
+import com.example.similarityaggregator.application.port.in.GetSimilarProductsUseCase;
+import com.example.similarityaggregator.domain.model.Product;
+import com.example.similarityaggregator.infrastructure.cache.ResponseDependencies;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Concurrent requests for the similar products of the same product share one aggregation. It runs
+ * with quality flags and dependencies of its own, which are handed to every request sharing it, so
+ * each response gets the right headers and response cache entry. A client that disconnects only
+ * cancels the aggregation if nobody else is waiting for it.
+ * <p>
+ * Streams and batches are not shared: a late subscriber would miss the items already streamed, and
+ * identical batches are rare.
+ */
+public class CoalescingGetSimilarProductsUseCase implements GetSimilarProductsUseCase {
+
+    private final GetSimilarProductsUseCase delegate;
+    private final SingleFlight<String, Aggregation> singleFlight;
+
+    public CoalescingGetSimilarProductsUseCase(GetSimilarProductsUseCase delegate,
+                                               SingleFlight<String, Aggregation> singleFlight) {
+        this.delegate = delegate;
+        this.singleFlight = singleFlight;
+    }
+
+    @Override
+    public Mono<List<Product>> getSimilarProducts(String productId) {
+        return singleFlight.execute(productId, () -> aggregate(productId))
+                .flatMap(CoalescingGetSimilarProductsUseCase::handOver);
+    }
+
+    @Override
+    public Flux<Product> streamSimilarProducts(String productId) {
+        return delegate.streamSimilarProducts(productId);
+    }
+
+    @Override
+    public Mono<Map<String, List<Product>>> getSimilarProducts(List<String> productIds) {
+        return delegate.getSimilarProducts(productIds);
+    }
+
+    private Mono<Aggregation> aggregate(String productId) {
+        return Mono.deferContextual(context -> {
+            ResponseQuality quality = new ResponseQuality();
+            ResponseDependencies dependencies = ResponseDependencies.from(context)
+                    .map(ResponseDependencies::fork)
+                    .orElse(null);
+
+            return delegate.getSimilarProducts(productId)
+                    .map(products -> new Aggregation(products, quality.isDegraded(), quality.isPartial(),
+                            dependencies))
+                    .contextWrite(quality::writeTo)
+                    .contextWrite(ctx -> dependencies != null ? dependencies.writeTo(ctx) : ctx);
+        });
+    }
+
+    private static Mono<List<Product>> handOver(Aggregation aggregation) {
+        Mono<List<Product>> products = Mono.just(aggregation.products());
+        if (aggregation.degraded()) {
+            products = ResponseQuality.markDegraded(products);
+        }
+        if (aggregation.partial()) {
+            products = ResponseQuality.markPartial(products);
+        }
+        if (aggregation.dependencies() != null) {
+            products = ResponseDependencies.include(aggregation.dependencies(), products);
+        }
+        return products;
+    }
+
+    public record Aggregation(List<Product> products, boolean degraded, boolean partial,
+                              ResponseDependencies dependencies) {
+    }
+}
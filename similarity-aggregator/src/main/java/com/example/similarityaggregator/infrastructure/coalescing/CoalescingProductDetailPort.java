@@ -0,0 +1,21 @@
+package com.example.similarityaggregator.infrastructure.coalescing;
+
+import com.example.similarityaggregator.application.port.out.ProductDetailPort;
+import com.example.similarityaggregator.domain.model.Product;
+import reactor.core.publisher.Mono;
+
+public class CoalescingProductDetailPort implements ProductDetailPort {
+
+    private final ProductDetailPort delegate;
+    private final SingleFlight<String, Product> singleFlight;
+
+    public CoalescingProductDetailPort(ProductDetailPort delegate, SingleFlight<String, Product> singleFlight) {
+        this.delegate = delegate;
+        this.singleFlight = singleFlight;
+    }
+
+    @Override
+    public Mono<Product> getProductDetail(String productId) {
+        return singleFlight.execute(productId, () -> delegate.getProductDetail(productId));
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.similarityaggregator.infrastructure.coalescing;
+
+import com.example.similarityaggregator.application.port.out.SimilarProductIdsPort;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public class CoalescingSimilarProductIdsPort implements SimilarProductIdsPort {
+
+    private final SimilarProductIdsPort delegate;
+    private final SingleFlight<String, List<String>> singleFlight;
+    private final SingleFlight<String, String> streamFlight;
+
+    public CoalescingSimilarProductIdsPort(SimilarProductIdsPort delegate, SingleFlight<String, List<String>> singleFlight,
+                                           SingleFlight<String, String> streamFlight) {
+        this.delegate = delegate;
+        this.singleFlight = singleFlight;
+        this.streamFlight = streamFlight;
+    }
+
+    @Override
+    public Mono<List<String>> getSimilarIds(String productId) {
+        return singleFlight.execute(productId, () -> delegate.getSimilarIds(productId));
+    }
+
+    /**
+     * Concurrent streams for the same product share one upstream call, replayed to late joiners. While
+     * the whole list is already being loaded for that product, the stream waits for it instead.
+     */
+    @Override
+    public Flux<String> streamSimilarIds(String productId) {
+        return Flux.defer(() -> singleFlight.isInFlight(productId)
+                ? getSimilarIds(productId).flatMapIterable(ids -> ids)
+                : streamFlight.executeMany(productId, () -> delegate.streamSimilarIds(productId)));
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.similarityaggregator.infrastructure.coalescing;
+
+import com.example.similarityaggregator.application.context.ResponseQuality;
+import com.example.similarityaggregator.application.port.out.ProductDetailPort;
+import com.example.similarityaggregator.application.port.out.ProductDetailPort.Detail;
+import com.example.similarityaggregator.domain.model.Product;
+import com.example.similarityaggregator.infrastructure.rest.config.SimilarProductsApiProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Gathers the product ids missing from {@code cache} that all requests ask for during {@code window},
+ * or until {@code maxSize} distinct ids are waiting, and loads them with one
+ * {@link ProductDetailPort#getProductDetails} call, each distinct id once. Cached products
+ * are answered right away and never wait for a batch. Every caller is answered as soon as its own
+ * product is loaded, not when the whole batch is.
+ * <p>
+ * The batch runs detached from the requests in it. Each product comes with its own quality flags, and
+ * only the callers that asked for that product get them.
+ */
+public class MicroBatchingProductDetailPort implements ProductDetailPort {
+
+    private final ProductDetailPort delegate;
+    private final Cache cache;
+    private final SimilarProductsApiProperties.Batching policy;
+    private final DistributionSummary batchSize;
+    private final DistributionSummary dedupRatio;
+
+    private Batch pending;
+
+    public MicroBatchingProductDetailPort(ProductDetailPort delegate, Cache cache,
+                                          SimilarProductsApiProperties.Batching policy, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.cache = cache;
+        this.policy = policy;
+        this.batchSize = DistributionSummary.builder("product.detail.batch.size")
+                .description("Distinct product ids loaded per batch")
+                .register(meterRegistry);
+        this.dedupRatio = DistributionSummary.builder("product.detail.batch.dedup.ratio")
+                .description("Share of the requested product ids that were already in the batch")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Product> getProductDetail(String productId) {
+        if (!policy.enabled()) {
+            return delegate.getProductDetail(productId);
+        }
+        return Mono.defer(() -> {
+            CompletableFuture<?> cached = cache != null ? cache.retrieve(productId) : null;
+            if (cached != null) {
+                return Mono.fromFuture(cached)
+                        .mapNotNull(value -> value instanceof Cache.ValueWrapper wrapper ? wrapper.get() : value)
+                        .cast(Product.class);
+            }
+            return join(productId).asMono()
+                    .flatMap(detail -> {
+                        Mono<Product> product = Mono.justOrEmpty(detail.product());
+                        if (detail.degraded()) {
+                            product = ResponseQuality.markDegraded(product);
+                        }
+                        if (detail.partial()) {
+                            product = ResponseQuality.markPartial(product);
+                        }
+                        return product;
+                    });
+        });
+    }
+
+    private Sinks.One<Detail> join(String productId) {
+        Batch batch;
+        Sinks.One<Detail> result;
+        boolean full;
+        synchronized (this) {
+            if (pending == null) {
+                pending = new Batch();
+                Batch scheduled = pending;
+                Mono.delay(policy.window()).subscribe(tick -> dispatch(scheduled));
+            }
+            batch = pending;
+            batch.requested++;
+            result = batch.results.computeIfAbsent(productId, id -> Sinks.one());
+            full = batch.results.size() >= policy.maxSize();
+        }
+        if (full) {
+            dispatch(batch);
+        }
+        return result;
+    }
+
+    private void dispatch(Batch batch) {
+        synchronized (this) {
+            if (batch.dispatched) {
+                return;
+            }
+            batch.dispatched = true;
+            if (pending == batch) {
+                pending = null;
+            }
+        }
+        batchSize.record(batch.results.size());
+        dedupRatio.record(1 - (double) batch.results.size() / batch.requested);
+
+        // Results are keyed by the requested id, whatever id the upstream answers with. Ids the upstream
+        // leaves out, or that it never got to because the whole batch failed, are answered empty
+        Map<String, Sinks.One<Detail>> results = batch.results;
+        delegate.getProductDetails(results.keySet())
+                .subscribe(detail -> {
+                            Sinks.One<Detail> result = results.get(detail.productId());
+                            if (result != null) {
+                                result.tryEmitValue(detail);
+                            }
+                        },
+                        e -> results.forEach((productId, result) -> result.tryEmitValue(new Detail(productId, null, false, true))),
+                        () -> results.forEach((productId, result) -> result.tryEmitValue(new Detail(productId, null, false, false))));
+    }
+
+    private static final class Batch {
+
+        // Guarded by the port's monitor until dispatched, read-only afterwards
+        final Map<String, Sinks.One<Detail>> results = new LinkedHashMap<>();
+        int requested;
+        boolean dispatched;
+    }
+}
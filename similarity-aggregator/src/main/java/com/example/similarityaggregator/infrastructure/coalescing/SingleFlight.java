@@ -0,0 +1,117 @@
+package com.example.similarityaggregator.infrastructure.coalescing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Keeps at most one call per key in flight. Concurrent subscribers for the same key share the
+ * outcome of the first one (value, empty or error) instead of starting their own call.
+ * The shared call is cancelled only when every subscriber has cancelled.
+ * <p>
+ * Streams are shared the same way; a subscriber joining a running stream first gets the elements
+ * it missed. Blocking calls run on the thread of the first caller while the others wait for it.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, Mono<V>> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentMap<K, Flux<V>> inFlightStreams = new ConcurrentHashMap<>();
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlightBlocking = new ConcurrentHashMap<>();
+    private final Counter originatedCalls;
+    private final Counter coalescedCalls;
+
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.originatedCalls = Counter.builder("single.flight.calls")
+                .tag("name", name)
+                .tag("outcome", "originated")
+                .register(meterRegistry);
+        this.coalescedCalls = Counter.builder("single.flight.calls")
+                .tag("name", name)
+                .tag("outcome", "coalesced")
+                .register(meterRegistry);
+        Gauge.builder("single.flight.in.flight", this, singleFlight -> singleFlight.inFlight.size()
+                        + singleFlight.inFlightStreams.size() + singleFlight.inFlightBlocking.size())
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    public Mono<V> execute(K key, Supplier<Mono<V>> call) {
+        return Mono.defer(() -> {
+            boolean[] originator = new boolean[1];
+            Mono<V> shared = inFlight.computeIfAbsent(key, k -> {
+                originator[0] = true;
+                return share(k, call);
+            });
+            (originator[0] ? originatedCalls : coalescedCalls).increment();
+            return shared;
+        });
+    }
+
+    public Flux<V> executeMany(K key, Supplier<Flux<V>> call) {
+        return Flux.defer(() -> {
+            boolean[] originator = new boolean[1];
+            Flux<V> shared = inFlightStreams.computeIfAbsent(key, k -> {
+                originator[0] = true;
+                return shareMany(k, call);
+            });
+            (originator[0] ? originatedCalls : coalescedCalls).increment();
+            return shared;
+        });
+    }
+
+    public V executeBlocking(K key, Supplier<V> call) {
+        CompletableFuture<V> own = new CompletableFuture<>();
+        CompletableFuture<V> shared = inFlightBlocking.putIfAbsent(key, own);
+        if (shared != null) {
+            coalescedCalls.increment();
+            try {
+                return shared.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        originatedCalls.increment();
+        try {
+            V value = call.get();
+            own.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightBlocking.remove(key, own);
+        }
+    }
+
+    public boolean isInFlight(K key) {
+        return inFlight.containsKey(key);
+    }
+
+    private Mono<V> share(K key, Supplier<Mono<V>> call) {
+        AtomicReference<Mono<V>> self = new AtomicReference<>();
+        Mono<V> shared = Mono.defer(call)
+                .doFinally(signal -> inFlight.remove(key, self.get()))
+                .share();
+        self.set(shared);
+        return shared;
+    }
+
+    private Flux<V> shareMany(K key, Supplier<Flux<V>> call) {
+        AtomicReference<Flux<V>> self = new AtomicReference<>();
+        Flux<V> shared = Flux.defer(call)
+                .doFinally(signal -> inFlightStreams.remove(key, self.get()))
+                .replay()
+                .refCount();
+        self.set(shared);
+        return shared;
+    }
+}
@@ -1,16 +1,25 @@
 package com.example.similarityaggregator.infrastructure.rest.adapter.in;
 
 import com.example.similarityaggregator.domain.exception.ProductNotFoundException;
+import com.example.similarityaggregator.infrastructure.admission.AdmissionRejectedException;
+import com.example.similarityaggregator.infrastructure.rest.bulkhead.KeyedBulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
 import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import io.netty.handler.timeout.ReadTimeoutException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.server.ServerWebInputException;
+
+import java.net.http.HttpTimeoutException;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
@@ -20,7 +29,13 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(ProductNotFoundException.class)
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public void handleProductNotFound(ProductNotFoundException ex) {
-        log.info("Product not found: {}", ex.getProductId());
+        log.debug("Product not found: {}", ex.getProductId());
+    }
+
+    @ExceptionHandler({HandlerMethodValidationException.class, ServerWebInputException.class})
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public void handleInvalidRequest(Exception ex) {
+        log.debug("Invalid request: {}", ex.getMessage());
     }
 
     @ExceptionHandler(WebClientRequestException.class)
@@ -34,12 +49,31 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_GATEWAY).build();
     }
 
-    @ExceptionHandler(CallNotPermittedException.class)
+    @ExceptionHandler(ResourceAccessException.class)
+    public ResponseEntity<Void> handleRestClientException(ResourceAccessException ex) {
+        if (ex.getCause() instanceof HttpTimeoutException) {
+            log.error("Upstream request timeout: {}", ex.getMessage());
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).build();
+        }
+
+        log.error("Upstream connection error: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_GATEWAY).build();
+    }
+
+    @ExceptionHandler({CallNotPermittedException.class, BulkheadFullException.class, KeyedBulkheadFullException.class})
     @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
     public void handleServiceUnavailable(Exception ex) {
         log.error("Service unavailable: {}", ex.getMessage());
     }
 
+    @ExceptionHandler(AdmissionRejectedException.class)
+    public ResponseEntity<Void> handleAdmissionRejected(AdmissionRejectedException ex) {
+        log.debug("Load shed: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+                .build();
+    }
+
     @ExceptionHandler(Exception.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public void handleGenericException(Exception ex) {
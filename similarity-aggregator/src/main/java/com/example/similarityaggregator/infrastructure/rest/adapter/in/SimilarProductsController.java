@@ -1,30 +1,122 @@
 package com.example.similarityaggregator.infrastructure.rest.adapter.in;
 
+import com.example.similarityaggregator.application.context.ResponseQuality;
 import com.example.similarityaggregator.application.port.in.GetSimilarProductsUseCase;
+import com.example.similarityaggregator.infrastructure.cache.ResponseCache;
+import com.example.similarityaggregator.infrastructure.cache.ResponseDependencies;
 import com.example.similarityaggregator.infrastructure.rest.adapter.in.dto.ProductResponse;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * Answers with the JSON body as bytes, so a {@link ResponseCache} hit is written to the connection as
+ * is and a miss is serialized once, for both the client and the cache.
+ */
 @RestController
 @RequestMapping("/product")
 public class SimilarProductsController {
 
+    public static final String DEGRADED_HEADER = "X-Degraded";
+    public static final String PARTIAL_HEADER = "X-Partial";
+    public static final int MAX_BATCH_SIZE = 100;
+
     private final GetSimilarProductsUseCase getSimilarProductsUseCase;
+    private final JsonMapper jsonMapper;
+    private final ResponseCache responseCache;
 
-    public SimilarProductsController(GetSimilarProductsUseCase getSimilarProductsUseCase) {
+    public SimilarProductsController(GetSimilarProductsUseCase getSimilarProductsUseCase,
+                                     JsonMapper jsonMapper,
+                                     ObjectProvider<ResponseCache> responseCache) {
         this.getSimilarProductsUseCase = getSimilarProductsUseCase;
+        this.jsonMapper = jsonMapper;
+        this.responseCache = responseCache.getIfAvailable();
+    }
+
+    @GetMapping(value = "/{productId}/similar", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<byte[]>> getSimilarProducts(@PathVariable String productId) {
+        return Mono.defer(() -> {
+            byte[] cached = responseCache != null ? responseCache.get(productId) : null;
+            if (cached != null) {
+                return Mono.just(ResponseEntity.ok().body(cached));
+            }
+
+            ResponseQuality quality = new ResponseQuality();
+            ResponseDependencies dependencies = responseCache != null ? responseCache.begin() : null;
+
+            return getSimilarProductsUseCase.getSimilarProducts(productId)
+                    .map(products -> jsonMapper.writeValueAsBytes(products.stream()
+                            .map(ProductResponse::fromDomain)
+                            .toList()))
+                    .doOnNext(body -> {
+                        // Stale or incomplete answers are served, never remembered
+                        if (dependencies != null && !quality.isDegraded() && !quality.isPartial()) {
+                            responseCache.put(productId, body, dependencies);
+                        }
+                    })
+                    .map(body -> withQualityHeaders(ResponseEntity.ok(), quality).body(body))
+                    .contextWrite(quality::writeTo)
+                    .contextWrite(context -> dependencies != null ? dependencies.writeTo(context) : context);
+        });
+    }
+
+    /**
+     * Streaming variant for clients that want to render the first products before the slowest one
+     * arrives. Headers are committed with the first item, so degraded answers are not flagged here.
+     */
+    @GetMapping(value = "/{productId}/similar",
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<ProductResponse> streamSimilarProducts(@PathVariable String productId) {
+        return getSimilarProductsUseCase.streamSimilarProducts(productId)
+                .map(ProductResponse::fromDomain);
+    }
+
+    /**
+     * Similar products of a whole grid in one call, keyed by product id. Details shared between the
+     * lists are fetched once. Not served from the response cache.
+     */
+    @PostMapping(value = "/similar", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<Map<String, List<ProductResponse>>>> getSimilarProducts(
+            @RequestBody @Size(min = 1, max = MAX_BATCH_SIZE) List<@NotBlank String> productIds) {
+        return Mono.defer(() -> {
+            ResponseQuality quality = new ResponseQuality();
+
+            return getSimilarProductsUseCase.getSimilarProducts(productIds)
+                    .map(products -> {
+                        Map<String, List<ProductResponse>> body = new LinkedHashMap<>();
+                        products.forEach((productId, similar) -> body.put(productId, similar.stream()
+                                .map(ProductResponse::fromDomain)
+                                .toList()));
+                        return withQualityHeaders(ResponseEntity.ok(), quality).body(body);
+                    })
+                    .contextWrite(quality::writeTo);
+        });
     }
 
-    @GetMapping("/{productId}/similar")
-    public Mono<List<ProductResponse>> getSimilarProducts(@PathVariable String productId) {
-        return getSimilarProductsUseCase.getSimilarProducts(productId)
-                .map(products -> products.stream()
-                        .map(ProductResponse::fromDomain)
-                        .toList());
+    private static ResponseEntity.BodyBuilder withQualityHeaders(ResponseEntity.BodyBuilder response,
+                                                                 ResponseQuality quality) {
+        if (quality.isDegraded()) {
+            response.header(DEGRADED_HEADER, "true");
+        }
+        if (quality.isPartial()) {
+            response.header(PARTIAL_HEADER, "true");
+        }
+        return response;
     }
-}
\ No newline at end of file
+}
@@ -1,49 +1,109 @@
 package com.example.similarityaggregator.infrastructure.rest.adapter.out;
 
+import com.example.similarityaggregator.application.context.ResponseQuality;
 import com.example.similarityaggregator.application.port.out.ProductDetailPort;
 import com.example.similarityaggregator.domain.exception.ProductNotFoundException;
 import com.example.similarityaggregator.domain.model.Product;
+import com.example.similarityaggregator.infrastructure.cache.CacheRefresher;
+import com.example.similarityaggregator.infrastructure.cache.LastKnownGoodStore;
+import com.example.similarityaggregator.infrastructure.cache.NotFoundCache;
 import com.example.similarityaggregator.infrastructure.rest.adapter.out.dto.ProductDetailResponse;
+import com.example.similarityaggregator.infrastructure.rest.bulkhead.KeyedBulkhead;
+import com.example.similarityaggregator.infrastructure.rest.hedging.RequestHedger;
+import com.example.similarityaggregator.infrastructure.rest.limiter.AdaptiveConcurrencyLimiter;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
 
 @Component
-public class ProductDetailRestAdapter implements ProductDetailPort {
+@Profile("!blocking")
+@Qualifier("productDetailAdapter")
+public class ProductDetailRestAdapter implements ProductDetailPort, CacheRefresher {
 
     private static final Logger log = LoggerFactory.getLogger(ProductDetailRestAdapter.class);
 
+    public static final String CACHE_NAME = "product-detail";
+
     private final WebClient webClient;
+    private final NotFoundCache notFoundCache;
+    private final LastKnownGoodStore lastKnownGoodStore;
+    private final RequestHedger requestHedger;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final Bulkhead bulkhead;
+    private final KeyedBulkhead keyedBulkhead;
 
-    public ProductDetailRestAdapter(WebClient.Builder webClientBuilder,
-                                    @Value("${similar-products.api.base-url}") String baseUrl) {
+    public ProductDetailRestAdapter(@Qualifier("productDetailWebClientBuilder") WebClient.Builder webClientBuilder,
+                                    @Value("${similar-products.api.base-url}") String baseUrl,
+                                    NotFoundCache notFoundCache,
+                                    LastKnownGoodStore lastKnownGoodStore,
+                                    RequestHedger requestHedger,
+                                    AdaptiveConcurrencyLimiter concurrencyLimiter,
+                                    BulkheadRegistry bulkheadRegistry,
+                                    @Qualifier("productDetailKeyedBulkhead") KeyedBulkhead keyedBulkhead) {
         this.webClient = webClientBuilder.baseUrl(baseUrl).build();
+        this.notFoundCache = notFoundCache;
+        this.lastKnownGoodStore = lastKnownGoodStore;
+        this.requestHedger = requestHedger;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.bulkhead = bulkheadRegistry.bulkhead("productDetail");
+        this.keyedBulkhead = keyedBulkhead;
     }
 
     @Override
-    @Cacheable(value = "product-detail", key = "#productId")
+    @Cacheable(value = CACHE_NAME, key = "#productId")
     @CircuitBreaker(name = "productDetail", fallbackMethod = "fallbackProductDetail")
     public Mono<Product> getProductDetail(String productId) {
+        return notFoundCache.guard(CACHE_NAME, productId, () -> fetchProductDetail(productId));
+    }
+
+    @Override
+    public String cacheName() {
+        return CACHE_NAME;
+    }
+
+    @Override
+    @CircuitBreaker(name = "productDetail")
+    public Mono<Product> refresh(Object productId) {
+        return fetchProductDetail((String) productId);
+    }
+
+    private Mono<Product> fetchProductDetail(String productId) {
         log.info("Fetching product detail for productId={}", productId);
 
-        return webClient.get()
-                .uri("/product/{productId}", productId)
-                .retrieve()
-                .bodyToMono(ProductDetailResponse.class)
+        // Bulkheads only guard upstream calls; cache hits never reach this method. Requests already share
+        // one call per product, so the per-product cap acts on the hedge copies, refreshes and warm-up on top.
+        // The hedger times the exchange alone, inside the limiter, so queueing does not skew its delay.
+        return requestHedger.hedge(() -> webClient.get()
+                                .uri("/product/{productId}", productId)
+                                .retrieve()
+                                .onStatus(HttpStatus.NOT_FOUND::equals,
+                                        response -> response.releaseBody().thenReturn(new ProductNotFoundException(productId)))
+                                .bodyToMono(ProductDetailResponse.class),
+                        exchange -> keyedBulkhead.limit(productId, () -> concurrencyLimiter.limit(() -> exchange)))
+                .transformDeferred(BulkheadOperator.of(bulkhead))
                 .map(ProductDetailResponse::toDomain)
                 .doOnNext(product -> log.info("Found product: {}", product.id()))
-                .onErrorResume(WebClientResponseException.NotFound.class,
-                        e -> Mono.error(new ProductNotFoundException(productId)));
+                .doOnNext(product -> lastKnownGoodStore.remember(CACHE_NAME, productId, product));
     }
 
     public Mono<Product> fallbackProductDetail(String productId, Throwable t) {
+        if (t instanceof ProductNotFoundException) {
+            return Mono.empty();
+        }
         log.error("Circuit breaker fallback for productDetail, productId={}, error={}", productId, t.getMessage());
-        return Mono.empty();
+        return lastKnownGoodStore.<Product>recall(CACHE_NAME, productId)
+                .doOnNext(product -> log.warn("Serving last known good product detail, productId={}", productId))
+                .switchIfEmpty(ResponseQuality.markPartial(Mono.empty()));
     }
 }
\ No newline at end of file
@@ -0,0 +1,122 @@
+package com.example.similarityaggregator.infrastructure.rest.adapter.out;
+
+import com.example.similarityaggregator.application.context.ResponseQuality;
+import com.example.similarityaggregator.application.port.out.BlockingProductDetailPort;
+import com.example.similarityaggregator.domain.exception.ProductNotFoundException;
+import com.example.similarityaggregator.domain.model.Product;
+import com.example.similarityaggregator.infrastructure.cache.CacheRefresher;
+import com.example.similarityaggregator.infrastructure.cache.LastKnownGoodStore;
+import com.example.similarityaggregator.infrastructure.cache.NotFoundCache;
+import com.example.similarityaggregator.infrastructure.rest.adapter.out.dto.ProductDetailResponse;
+import com.example.similarityaggregator.infrastructure.rest.bulkhead.KeyedBulkhead;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.Optional;
+
+/**
+ * Blocking counterpart of {@link ProductDetailRestAdapter} for the {@code blocking} profile: the call
+ * is a plain {@link RestClient} request on the caller's virtual thread. Not-found caching, the circuit
+ * breaker with its fallback and the bulkheads behave the same; the cache and single flight are in
+ * front of it ({@code BlockingReadThroughProductDetailPort}). Hedging, the adaptive limit and
+ * micro-batching do not apply.
+ */
+@Component
+@Profile("blocking")
+@Qualifier("productDetailAdapter")
+public class RestClientProductDetailAdapter implements BlockingProductDetailPort, CacheRefresher {
+
+    private static final Logger log = LoggerFactory.getLogger(RestClientProductDetailAdapter.class);
+
+    private final RestClient restClient;
+    private final NotFoundCache notFoundCache;
+    private final LastKnownGoodStore lastKnownGoodStore;
+    private final Scheduler virtualThreads;
+    private final Bulkhead bulkhead;
+    private final KeyedBulkhead keyedBulkhead;
+
+    public RestClientProductDetailAdapter(@Qualifier("productDetailRestClientBuilder") RestClient.Builder restClientBuilder,
+                                          @Value("${similar-products.api.base-url}") String baseUrl,
+                                          NotFoundCache notFoundCache,
+                                          LastKnownGoodStore lastKnownGoodStore,
+                                          @Qualifier("virtualThreadScheduler") Scheduler virtualThreads,
+                                          BulkheadRegistry bulkheadRegistry,
+                                          @Qualifier("productDetailKeyedBulkhead") KeyedBulkhead keyedBulkhead) {
+        this.restClient = restClientBuilder.baseUrl(baseUrl).build();
+        this.notFoundCache = notFoundCache;
+        this.lastKnownGoodStore = lastKnownGoodStore;
+        this.virtualThreads = virtualThreads;
+        this.bulkhead = bulkheadRegistry.bulkhead("productDetail");
+        this.keyedBulkhead = keyedBulkhead;
+    }
+
+    @Override
+    @CircuitBreaker(name = "productDetail", fallbackMethod = "fallbackProductDetail")
+    public Optional<Product> getProductDetail(String productId) {
+        return Optional.ofNullable(notFoundCache.guardBlocking(ProductDetailRestAdapter.CACHE_NAME, productId,
+                () -> fetchProductDetail(productId)));
+    }
+
+    @Override
+    public String cacheName() {
+        return ProductDetailRestAdapter.CACHE_NAME;
+    }
+
+    /**
+     * Refreshes run in the background, off any request, so they get a virtual thread of their own.
+     */
+    @Override
+    @CircuitBreaker(name = "productDetail")
+    public Mono<Product> refresh(Object productId) {
+        return Mono.fromCallable(() -> fetchProductDetail((String) productId))
+                .subscribeOn(virtualThreads);
+    }
+
+    /**
+     * @return {@code null} when the upstream answers without a body
+     */
+    private Product fetchProductDetail(String productId) {
+        log.info("Fetching product detail for productId={}", productId);
+
+        ProductDetailResponse body = keyedBulkhead.limitBlocking(productId, () -> bulkhead.executeSupplier(
+                () -> restClient.get()
+                        .uri("/product/{productId}", productId)
+                        .retrieve()
+                        .onStatus(HttpStatus.NOT_FOUND::equals, (request, response) -> {
+                            throw new ProductNotFoundException(productId);
+                        })
+                        .body(ProductDetailResponse.class)));
+        if (body == null) {
+            return null;
+        }
+        Product product = body.toDomain();
+        log.info("Found product: {}", product.id());
+        lastKnownGoodStore.remember(ProductDetailRestAdapter.CACHE_NAME, productId, product);
+        return product;
+    }
+
+    public Optional<Product> fallbackProductDetail(String productId, Throwable t) {
+        if (t instanceof ProductNotFoundException) {
+            return Optional.empty();
+        }
+        log.error("Circuit breaker fallback for productDetail, productId={}, error={}", productId, t.getMessage());
+        Optional<Product> product = lastKnownGoodStore.recallBlocking(ProductDetailRestAdapter.CACHE_NAME, productId);
+        if (product.isPresent()) {
+            log.warn("Serving last known good product detail, productId={}", productId);
+        } else {
+            ResponseQuality.flagPartial();
+        }
+        return product;
+    }
+}
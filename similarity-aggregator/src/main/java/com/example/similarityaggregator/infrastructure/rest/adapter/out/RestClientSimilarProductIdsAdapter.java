@@ -0,0 +1,107 @@
+package com.example.similarityaggregator.infrastructure.rest.adapter.out;
+
+import com.example.similarityaggregator.application.port.out.BlockingSimilarProductIdsPort;
+import com.example.similarityaggregator.domain.exception.ProductNotFoundException;
+import com.example.similarityaggregator.infrastructure.cache.CacheRefresher;
+import com.example.similarityaggregator.infrastructure.cache.LastKnownGoodStore;
+import com.example.similarityaggregator.infrastructure.cache.NotFoundCache;
+import com.example.similarityaggregator.infrastructure.rest.bulkhead.KeyedBulkhead;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Blocking counterpart of {@link SimilarProductIdsRestAdapter} for the {@code blocking} profile, built
+ * like {@link RestClientProductDetailAdapter}.
+ */
+@Component
+@Profile("blocking")
+@Qualifier("similarIdsAdapter")
+public class RestClientSimilarProductIdsAdapter implements BlockingSimilarProductIdsPort, CacheRefresher {
+
+    private static final Logger log = LoggerFactory.getLogger(RestClientSimilarProductIdsAdapter.class);
+
+    private final RestClient restClient;
+    private final NotFoundCache notFoundCache;
+    private final LastKnownGoodStore lastKnownGoodStore;
+    private final Scheduler virtualThreads;
+    private final Bulkhead bulkhead;
+    private final KeyedBulkhead keyedBulkhead;
+
+    public RestClientSimilarProductIdsAdapter(@Qualifier("similarIdsRestClientBuilder") RestClient.Builder restClientBuilder,
+                                              @Value("${similar-products.api.base-url}") String baseUrl,
+                                              NotFoundCache notFoundCache,
+                                              LastKnownGoodStore lastKnownGoodStore,
+                                              @Qualifier("virtualThreadScheduler") Scheduler virtualThreads,
+                                              BulkheadRegistry bulkheadRegistry,
+                                              @Qualifier("similarIdsKeyedBulkhead") KeyedBulkhead keyedBulkhead) {
+        this.restClient = restClientBuilder.baseUrl(baseUrl).build();
+        this.notFoundCache = notFoundCache;
+        this.lastKnownGoodStore = lastKnownGoodStore;
+        this.virtualThreads = virtualThreads;
+        this.bulkhead = bulkheadRegistry.bulkhead("similarIds");
+        this.keyedBulkhead = keyedBulkhead;
+    }
+
+    @Override
+    @CircuitBreaker(name = "similarIds", fallbackMethod = "fallbackSimilarIds")
+    public List<String> getSimilarIds(String productId) {
+        return notFoundCache.guardBlocking(SimilarProductIdsRestAdapter.CACHE_NAME, productId,
+                () -> fetchSimilarIds(productId));
+    }
+
+    @Override
+    public String cacheName() {
+        return SimilarProductIdsRestAdapter.CACHE_NAME;
+    }
+
+    @Override
+    @CircuitBreaker(name = "similarIds")
+    public Mono<List<String>> refresh(Object productId) {
+        return Mono.fromCallable(() -> fetchSimilarIds((String) productId))
+                .subscribeOn(virtualThreads);
+    }
+
+    private List<String> fetchSimilarIds(String productId) {
+        log.info("Fetching similar ids for productId={}", productId);
+
+        String[] body = keyedBulkhead.limitBlocking(productId, () -> bulkhead.executeSupplier(
+                () -> restClient.get()
+                        .uri("/product/{productId}/similarids", productId)
+                        .retrieve()
+                        .onStatus(HttpStatus.NOT_FOUND::equals, (request, response) -> {
+                            throw new ProductNotFoundException(productId);
+                        })
+                        .body(String[].class)));
+        List<String> ids = body != null ? List.of(body) : List.of();
+        log.info("Found {} similar ids for productId={}", ids.size(), productId);
+        lastKnownGoodStore.remember(SimilarProductIdsRestAdapter.CACHE_NAME, productId, ids);
+        return ids;
+    }
+
+    public List<String> fallbackSimilarIds(String productId, Throwable t) throws Throwable {
+        if (t instanceof ProductNotFoundException) {
+            throw t;
+        }
+        log.error("Circuit breaker fallback similarIds, productId={}, error={}", productId, t.getMessage());
+        Optional<List<String>> ids = lastKnownGoodStore.recallBlocking(SimilarProductIdsRestAdapter.CACHE_NAME, productId);
+        if (ids.isEmpty()) {
+            throw t;
+        }
+        log.warn("Serving last known good similar ids, productId={}", productId);
+        return ids.get();
+    }
+}
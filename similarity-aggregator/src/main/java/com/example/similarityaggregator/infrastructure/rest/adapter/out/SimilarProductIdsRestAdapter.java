@@ -1,49 +1,181 @@
 package com.example.similarityaggregator.infrastructure.rest.adapter.out;
 
+import com.example.similarityaggregator.application.context.ResponseQuality;
 import com.example.similarityaggregator.application.port.out.SimilarProductIdsPort;
 import com.example.similarityaggregator.domain.exception.ProductNotFoundException;
+import com.example.similarityaggregator.infrastructure.cache.CacheRefresher;
+import com.example.similarityaggregator.infrastructure.cache.LastKnownGoodStore;
+import com.example.similarityaggregator.infrastructure.cache.NotFoundCache;
+import com.example.similarityaggregator.infrastructure.rest.adapter.out.dto.SimilarIdResponse;
+import com.example.similarityaggregator.infrastructure.rest.bulkhead.KeyedBulkhead;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Component
-public class SimilarProductIdsRestAdapter implements SimilarProductIdsPort {
+@Profile("!blocking")
+@Qualifier("similarIdsAdapter")
+public class SimilarProductIdsRestAdapter implements SimilarProductIdsPort, CacheRefresher {
 
     private static final Logger log = LoggerFactory.getLogger(SimilarProductIdsRestAdapter.class);
 
+    public static final String CACHE_NAME = "similar-ids";
+
     private final WebClient webClient;
+    private final NotFoundCache notFoundCache;
+    private final LastKnownGoodStore lastKnownGoodStore;
+    private final Bulkhead bulkhead;
+    private final KeyedBulkhead keyedBulkhead;
+    private final CacheManager cacheManager;
 
-    public SimilarProductIdsRestAdapter(WebClient.Builder webClientBuilder,
-                                        @Value("${similar-products.api.base-url}") String baseUrl) {
+    public SimilarProductIdsRestAdapter(@Qualifier("similarIdsWebClientBuilder") WebClient.Builder webClientBuilder,
+                                        @Value("${similar-products.api.base-url}") String baseUrl,
+                                        CacheManager cacheManager,
+                                        NotFoundCache notFoundCache,
+                                        LastKnownGoodStore lastKnownGoodStore,
+                                        BulkheadRegistry bulkheadRegistry,
+                                        @Qualifier("similarIdsKeyedBulkhead") KeyedBulkhead keyedBulkhead) {
         this.webClient = webClientBuilder.baseUrl(baseUrl).build();
+        this.notFoundCache = notFoundCache;
+        this.lastKnownGoodStore = lastKnownGoodStore;
+        this.bulkhead = bulkheadRegistry.bulkhead("similarIds");
+        this.keyedBulkhead = keyedBulkhead;
+        this.cacheManager = cacheManager;
     }
 
     @Override
-    @Cacheable(value = "similar-ids", key = "#productId")
+    @Cacheable(value = CACHE_NAME, key = "#productId")
     @CircuitBreaker(name = "similarIds", fallbackMethod = "fallbackSimilarIds")
     public Mono<List<String>> getSimilarIds(String productId) {
+        return notFoundCache.guard(CACHE_NAME, productId, () -> fetchSimilarIds(productId));
+    }
+
+    /**
+     * A cached list is replayed as is. On a miss the ids are emitted while the body is still being
+     * decoded, by Jackson's non-blocking parser straight from the network buffers, and the complete list
+     * is cached the same way {@link #getSimilarIds} would cache it.
+     */
+    @Override
+    @CircuitBreaker(name = "similarIds", fallbackMethod = "fallbackStreamSimilarIds")
+    public Flux<String> streamSimilarIds(String productId) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        CompletableFuture<?> cached = cache != null ? cache.retrieve(productId) : null;
+        if (cached != null) {
+            return Mono.fromFuture(cached)
+                    .mapNotNull(value -> value instanceof Cache.ValueWrapper wrapper ? wrapper.get() : value)
+                    .flatMapIterable(SimilarProductIdsRestAdapter::asIds);
+        }
+        return notFoundCache.guardMany(CACHE_NAME, productId, () -> streamAndCache(productId, cache));
+    }
+
+    @Override
+    public String cacheName() {
+        return CACHE_NAME;
+    }
+
+    @Override
+    @CircuitBreaker(name = "similarIds")
+    public Mono<List<String>> refresh(Object productId) {
+        return fetchSimilarIds((String) productId);
+    }
+
+    private Mono<List<String>> fetchSimilarIds(String productId) {
         log.info("Fetching similar ids for productId={}", productId);
 
-        return webClient.get()
-                .uri("/product/{productId}/similarids", productId)
-                .retrieve()
-                .bodyToMono(String[].class)
+        // Bulkheads only guard upstream calls; cache hits never reach this method
+        return keyedBulkhead.limit(productId, () -> webClient.get()
+                        .uri("/product/{productId}/similarids", productId)
+                        .retrieve()
+                        .onStatus(HttpStatus.NOT_FOUND::equals,
+                                response -> response.releaseBody().thenReturn(new ProductNotFoundException(productId)))
+                        .bodyToMono(String[].class)
+                        .transformDeferred(BulkheadOperator.of(bulkhead)))
                 .map(List::of)
                 .doOnNext(ids -> log.info("Found {} similar ids for productId={}", ids.size(), productId))
-                .onErrorResume(WebClientResponseException.NotFound.class,
-                        e -> Mono.error(new ProductNotFoundException(productId)));
+                .doOnNext(ids -> lastKnownGoodStore.remember(CACHE_NAME, productId, ids));
+    }
+
+    private Flux<String> streamAndCache(String productId, Cache cache) {
+        log.info("Streaming similar ids for productId={}", productId);
+
+        return Flux.defer(() -> {
+            List<String> ids = new ArrayList<>();
+            return keyedBulkhead.limitMany(productId, () -> webClient.get()
+                            .uri("/product/{productId}/similarids", productId)
+                            .retrieve()
+                            .onStatus(HttpStatus.NOT_FOUND::equals,
+                                    response -> response.releaseBody().thenReturn(new ProductNotFoundException(productId)))
+                            .bodyToFlux(SimilarIdResponse.class)
+                            .transformDeferred(BulkheadOperator.of(bulkhead)))
+                    .map(SimilarIdResponse::id)
+                    .doOnNext(ids::add)
+                    // Still a failure for the circuit breaker, but the fallback must not repeat ids already sent
+                    .onErrorMap(e -> !ids.isEmpty(), e -> new StreamCutShortException(productId, ids.size(), e))
+                    .doOnComplete(() -> {
+                        // A stream cut short by the caller is not a complete list, so only completion caches
+                        List<String> similarIds = List.copyOf(ids);
+                        log.info("Found {} similar ids for productId={}", similarIds.size(), productId);
+                        if (cache != null) {
+                            cache.put(productId, similarIds);
+                        }
+                        lastKnownGoodStore.remember(CACHE_NAME, productId, similarIds);
+                    });
+        });
     }
 
     public Mono<List<String>> fallbackSimilarIds(String productId, Throwable t) {
+        if (t instanceof ProductNotFoundException) {
+            return Mono.error(t);
+        }
         log.error("Circuit breaker fallback similarIds, productId={}, error={}", productId, t.getMessage());
-        return Mono.error(t);
+        return lastKnownGoodStore.<List<String>>recall(CACHE_NAME, productId)
+                .doOnNext(ids -> log.warn("Serving last known good similar ids, productId={}", productId))
+                .switchIfEmpty(Mono.error(t));
+    }
+
+    /**
+     * Serves the last known good list only when nothing was streamed yet. A stream cut short after some
+     * ids ends with those, flagged partial, instead of appending a list that repeats them.
+     */
+    public Flux<String> fallbackStreamSimilarIds(String productId, Throwable t) {
+        if (t instanceof StreamCutShortException cutShort) {
+            log.error("Similar ids stream cut short after {} ids, productId={}, error={}",
+                    cutShort.emitted, productId, t.getCause().getMessage());
+            return ResponseQuality.<String>markPartial(Mono.empty()).flux();
+        }
+        return fallbackSimilarIds(productId, t).flatMapIterable(ids -> ids);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> asIds(Object cached) {
+        return (List<String>) cached;
+    }
+
+    private static final class StreamCutShortException extends RuntimeException {
+
+        private final int emitted;
+
+        StreamCutShortException(String productId, int emitted, Throwable cause) {
+            super("Similar ids stream of product " + productId + " failed after " + emitted + " ids", cause);
+            this.emitted = emitted;
+        }
     }
-}
\ No newline at end of file
+}
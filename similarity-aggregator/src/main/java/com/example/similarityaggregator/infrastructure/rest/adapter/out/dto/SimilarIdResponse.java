@@ -0,0 +1,18 @@
+package com.example.similarityaggregator.infrastructure.rest.adapter.out.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+/**
+ * One element of the {@code /similarids} array. Decoding to {@code String} would go through the plain
+ * text decoder, which hands over the whole body at once; this type makes Jackson emit each element.
+ */
+public record SimilarIdResponse(String id) {
+
+    /**
+     * Accepts numbers as well as strings, as the upstream sends either.
+     */
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public static SimilarIdResponse of(Object id) {
+        return new SimilarIdResponse(String.valueOf(id));
+    }
+}
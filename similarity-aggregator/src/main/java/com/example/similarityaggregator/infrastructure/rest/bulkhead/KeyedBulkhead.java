@@ -0,0 +1,88 @@
+package com.example.similarityaggregator.infrastructure.rest.bulkhead;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Caps concurrent calls per key, so one slow, popular product cannot take most of the slots of the
+ * upstream bulkhead. Calls over the cap fail right away with {@link KeyedBulkheadFullException}.
+ * Only keys with calls in flight are tracked.
+ * <p>
+ * Concurrent requests for one product already share a single call (single flight), so what this caps
+ * is the work stacked on top of that call: hedge copies, stale-while-revalidate refreshes and cache
+ * warm-up.
+ */
+public class KeyedBulkhead {
+
+    private final String name;
+    private final int maxConcurrentCallsPerKey;
+    private final Map<Object, Integer> inFlight = new ConcurrentHashMap<>();
+    private final Counter rejected;
+
+    public KeyedBulkhead(String name, int maxConcurrentCallsPerKey, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.maxConcurrentCallsPerKey = maxConcurrentCallsPerKey;
+        this.rejected = Counter.builder("keyed.bulkhead.rejections")
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("keyed.bulkhead.keys", inFlight, Map::size)
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    public <T> Mono<T> limit(Object key, Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            if (!tryAcquire(key)) {
+                rejected.increment();
+                return Mono.error(new KeyedBulkheadFullException(name, key));
+            }
+            return Mono.defer(call).doFinally(signal -> release(key));
+        });
+    }
+
+    public <T> Flux<T> limitMany(Object key, Supplier<Flux<T>> call) {
+        return Flux.defer(() -> {
+            if (!tryAcquire(key)) {
+                rejected.increment();
+                return Flux.error(new KeyedBulkheadFullException(name, key));
+            }
+            return Flux.defer(call).doFinally(signal -> release(key));
+        });
+    }
+
+    public <T> T limitBlocking(Object key, Supplier<T> call) {
+        if (!tryAcquire(key)) {
+            rejected.increment();
+            throw new KeyedBulkheadFullException(name, key);
+        }
+        try {
+            return call.get();
+        } finally {
+            release(key);
+        }
+    }
+
+    private boolean tryAcquire(Object key) {
+        boolean[] acquired = new boolean[1];
+        inFlight.compute(key, (k, count) -> {
+            int current = count == null ? 0 : count;
+            if (current >= maxConcurrentCallsPerKey) {
+                return count;
+            }
+            acquired[0] = true;
+            return current + 1;
+        });
+        return acquired[0];
+    }
+
+    private void release(Object key) {
+        inFlight.computeIfPresent(key, (k, count) -> count == 1 ? null : count - 1);
+    }
+}
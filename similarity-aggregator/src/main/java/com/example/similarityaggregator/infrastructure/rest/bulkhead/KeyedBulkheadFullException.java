@@ -0,0 +1,12 @@
+package com.example.similarityaggregator.infrastructure.rest.bulkhead;
+
+/**
+ * A call was rejected because too many calls for the same key are already in flight. Expected under
+ * load, so it carries no stack trace.
+ */
+public class KeyedBulkheadFullException extends RuntimeException {
+
+    public KeyedBulkheadFullException(String name, Object key) {
+        super("Bulkhead '" + name + "' is full for key " + key, null, false, false);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.similarityaggregator.infrastructure.rest.config;
+
+import com.example.similarityaggregator.infrastructure.rest.eventloop.EventLoopMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.unix.UnixChannelOption;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.reactor.netty.NettyServerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * Separate event loops for the server and the upstream clients, so a burst of upstream I/O cannot
+ * delay accepting requests and writing responses. Without this, both run on the global Reactor Netty
+ * loops.
+ */
+@Configuration
+@EnableConfigurationProperties(EventLoopProperties.class)
+@ConditionalOnProperty(prefix = "server.event-loops", name = "enabled", havingValue = "true")
+public class EventLoopConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(EventLoopConfig.class);
+
+    @Bean(destroyMethod = "dispose")
+    public LoopResources serverLoopResources(EventLoopProperties properties) {
+        EventLoopProperties.Loop loop = properties.server();
+        return LoopResources.create("server", loop.selectCount(), loop.workerCount(), true);
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public LoopResources clientLoopResources(EventLoopProperties properties) {
+        return LoopResources.create("client", properties.client().workerCount(), true);
+    }
+
+    // Owned and shut down by clientLoopResources
+    @Bean(destroyMethod = "")
+    public EventLoopGroup clientEventLoopGroup(EventLoopProperties properties, LoopResources clientLoopResources) {
+        return clientLoopResources.onClient(properties.preferNative());
+    }
+
+    @Bean
+    public NettyServerCustomizer eventLoopServerCustomizer(EventLoopProperties properties,
+                                                           LoopResources serverLoopResources) {
+        boolean nativeTransport = properties.preferNative() && Epoll.isAvailable();
+        log.info("Server event loops transport={}, workers={}", nativeTransport ? "epoll" : "nio",
+                properties.server().workerCount());
+
+        return httpServer -> {
+            httpServer = httpServer.runOn(serverLoopResources, properties.preferNative());
+            if (!properties.reusePort()) {
+                return httpServer;
+            }
+            if (!nativeTransport) {
+                log.warn("SO_REUSEPORT needs the native epoll transport, binding without it");
+                return httpServer;
+            }
+            return httpServer.option(UnixChannelOption.SO_REUSEPORT, true);
+        };
+    }
+
+    @Bean(destroyMethod = "close")
+    public EventLoopMetrics serverEventLoopMetrics(EventLoopProperties properties, LoopResources serverLoopResources,
+                                                   MeterRegistry meterRegistry) {
+        return new EventLoopMetrics("server", serverLoopResources.onServer(properties.preferNative()),
+                properties.latencyProbeInterval(), meterRegistry);
+    }
+
+    @Bean(destroyMethod = "close")
+    public EventLoopMetrics clientEventLoopMetrics(EventLoopProperties properties, EventLoopGroup clientEventLoopGroup,
+                                                   MeterRegistry meterRegistry) {
+        return new EventLoopMetrics("client", clientEventLoopGroup, properties.latencyProbeInterval(), meterRegistry);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.similarityaggregator.infrastructure.rest.config;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+
+/**
+ * Event loops of the inbound server and of the upstream clients.
+ *
+ * @param enabled              run server and clients on loops of their own instead of the shared
+ *                             Reactor Netty ones
+ * @param preferNative         use epoll on Linux when its native library loads, NIO otherwise
+ * @param reusePort            bind the server socket with SO_REUSEPORT, so several instances on one host
+ *                             can listen on {@code server.port} and the kernel spreads connections across
+ *                             their acceptors; needs the native transport
+ * @param latencyProbeInterval how often every loop is probed for scheduling delay
+ */
+@Validated
+@ConfigurationProperties(prefix = "server.event-loops")
+public record EventLoopProperties(
+        boolean enabled,
+        Boolean preferNative,
+        boolean reusePort,
+        Loop server,
+        Loop client,
+        @NotNull Duration latencyProbeInterval
+) {
+    public EventLoopProperties {
+        preferNative = preferNative == null || preferNative;
+        server = server == null ? Loop.DEFAULTS : server;
+        client = client == null ? Loop.DEFAULTS : client;
+        latencyProbeInterval = latencyProbeInterval == null ? Duration.ofMillis(100) : latencyProbeInterval;
+    }
+
+    /**
+     * @param selectCount threads accepting connections, 0 to accept on the worker threads; only used by
+     *                    the server
+     * @param workerCount threads doing the I/O of accepted or upstream connections
+     */
+    public record Loop(
+            @PositiveOrZero int selectCount,
+            @Positive int workerCount
+    ) {
+        public static final Loop DEFAULTS = new Loop(1, LoopResources.DEFAULT_IO_WORKER_COUNT);
+    }
+}
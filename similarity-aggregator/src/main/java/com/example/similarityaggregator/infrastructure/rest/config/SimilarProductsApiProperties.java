@@ -1,15 +1,128 @@
 package com.example.similarityaggregator.infrastructure.rest.config;
 
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.validation.annotation.Validated;
 
 import java.time.Duration;
+import java.util.Map;
 
 @Validated
 @ConfigurationProperties(prefix = "similar-products.api")
 public record SimilarProductsApiProperties(
         @NotBlank String baseUrl,
-        @NotNull Duration timeout
-) {}
\ No newline at end of file
+        @NotNull Duration timeout,
+        @Valid Hedging hedging,
+        @Valid ConcurrencyLimit concurrencyLimit,
+        @Valid Batching batching,
+        @Valid Http2 http2,
+        @Valid Map<String, Pool> pools,
+        @Positive Integer maxConcurrentCallsPerProduct
+) {
+    public static final String SIMILAR_IDS_POOL = "similar-ids";
+    public static final String PRODUCT_DETAIL_POOL = "product-detail";
+
+    public SimilarProductsApiProperties {
+        pools = pools == null ? Map.of() : Map.copyOf(pools);
+        hedging = hedging == null ? Hedging.DISABLED : hedging;
+        concurrencyLimit = concurrencyLimit == null ? ConcurrencyLimit.DISABLED : concurrencyLimit;
+        batching = batching == null ? Batching.DISABLED : batching;
+        http2 = http2 == null ? Http2.DISABLED : http2;
+        maxConcurrentCallsPerProduct = maxConcurrentCallsPerProduct == null ? 4 : maxConcurrentCallsPerProduct;
+    }
+
+    public Pool pool(String name) {
+        return pools.getOrDefault(name, Pool.DEFAULTS);
+    }
+
+    /**
+     * Connection pool of one upstream endpoint.
+     *
+     * @param pendingAcquireMaxCount requests allowed to wait for a connection before failing fast
+     * @param pendingAcquireTimeout  how long a request waits for a connection
+     * @param maxIdleTime            idle connections older than this are closed
+     * @param maxLifeTime            connections older than this are closed once released, to spread load
+     *                               after upstream scaling
+     */
+    public record Pool(
+            @Positive int maxConnections,
+            @Positive int pendingAcquireMaxCount,
+            @NotNull Duration pendingAcquireTimeout,
+            @NotNull Duration maxIdleTime,
+            @NotNull Duration maxLifeTime,
+            @NotNull Duration evictionInterval,
+            boolean keepAlive
+    ) {
+        public static final Pool DEFAULTS = new Pool(500, 1000, Duration.ofSeconds(45), Duration.ofSeconds(30),
+                Duration.ofMinutes(5), Duration.ofSeconds(30), true);
+    }
+
+    /**
+     * @param percentile   latency percentile of recent calls after which a second request is sent
+     * @param initialDelay delay used until {@code window} calls have been observed
+     * @param minDelay     lower bound of the delay, so a very fast upstream is not hedged on noise
+     * @param window       number of recent call latencies the percentile is computed from
+     * @param budget       extra requests allowed, as a percentage of regular ones
+     */
+    public record Hedging(
+            boolean enabled,
+            @DecimalMin("0.5") @DecimalMax("0.999") double percentile,
+            @NotNull Duration initialDelay,
+            @NotNull Duration minDelay,
+            @Positive int window,
+            @DecimalMin("0.0") @DecimalMax("100.0") double budget
+    ) {
+        public static final Hedging DISABLED =
+                new Hedging(false, 0.95, Duration.ofMillis(200), Duration.ofMillis(10), 100, 0);
+    }
+
+    /**
+     * @param latencyTolerance how many times slower than the long-run average a call has to be to count
+     *                         as a congestion signal
+     * @param backoffRatio     factor the limit is multiplied by on a congestion signal
+     */
+    public record ConcurrencyLimit(
+            boolean enabled,
+            @Positive int initialLimit,
+            @Positive int minLimit,
+            @Positive int maxLimit,
+            @DecimalMin("1.0") double latencyTolerance,
+            @DecimalMin("0.1") @DecimalMax("0.99") double backoffRatio
+    ) {
+        public static final ConcurrencyLimit DISABLED = new ConcurrencyLimit(false, 20, 1, 200, 2.0, 0.9);
+    }
+
+    /**
+     * @param window  how long product detail requests are gathered before they are loaded together
+     * @param maxSize distinct product ids that make a batch load right away
+     */
+    public record Batching(
+            boolean enabled,
+            @NotNull Duration window,
+            @Positive int maxSize
+    ) {
+        public static final Batching DISABLED = new Batching(false, Duration.ofMillis(2), 100);
+    }
+
+    /**
+     * HTTP/2 over cleartext to the upstream, so concurrent calls share a few multiplexed connections.
+     *
+     * @param priorKnowledge       speak HTTP/2 from the first byte; otherwise every new connection
+     *                             starts as HTTP/1.1 with an {@code Upgrade: h2c} request and stays
+     *                             HTTP/1.1 when the upstream does not switch
+     * @param maxConcurrentStreams streams per connection before another connection is opened; the
+     *                             upstream's own SETTINGS_MAX_CONCURRENT_STREAMS wins when lower
+     */
+    public record Http2(
+            boolean enabled,
+            boolean priorKnowledge,
+            @Positive long maxConcurrentStreams
+    ) {
+        public static final Http2 DISABLED = new Http2(false, false, 100);
+    }
+}
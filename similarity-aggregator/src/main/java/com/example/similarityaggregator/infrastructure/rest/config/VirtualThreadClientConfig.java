@@ -0,0 +1,69 @@
+package com.example.similarityaggregator.infrastructure.rest.config;
+
+import com.example.similarityaggregator.infrastructure.rest.filter.RestClientTimingInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.net.http.HttpClient;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Blocking upstream clients for the {@code blocking} profile. Every call runs on its own virtual
+ * thread, so blocking on the JDK HttpClient costs no platform thread. The JDK client keeps a single
+ * connection pool of its own; {@code similar-products.api.pools} only applies to the reactive clients.
+ * With {@code http2.enabled} it upgrades to h2c, but cannot start with prior knowledge.
+ */
+@Configuration
+@Profile("blocking")
+public class VirtualThreadClientConfig {
+
+    // close() would wait for calls still in flight, which may take as long as the upstream timeout
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService virtualThreadExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @Bean
+    public Scheduler virtualThreadScheduler(ExecutorService virtualThreadExecutor) {
+        return Schedulers.fromExecutorService(virtualThreadExecutor, "virtual");
+    }
+
+    @Bean
+    public RestClient.Builder similarIdsRestClientBuilder(SimilarProductsApiProperties properties,
+                                                          ExecutorService virtualThreadExecutor,
+                                                          MeterRegistry meterRegistry) {
+        return restClientBuilder(SimilarProductsApiProperties.SIMILAR_IDS_POOL, properties, virtualThreadExecutor,
+                meterRegistry);
+    }
+
+    @Bean
+    public RestClient.Builder productDetailRestClientBuilder(SimilarProductsApiProperties properties,
+                                                             ExecutorService virtualThreadExecutor,
+                                                             MeterRegistry meterRegistry) {
+        return restClientBuilder(SimilarProductsApiProperties.PRODUCT_DETAIL_POOL, properties, virtualThreadExecutor,
+                meterRegistry);
+    }
+
+    private static RestClient.Builder restClientBuilder(String name, SimilarProductsApiProperties properties,
+                                                        ExecutorService executor, MeterRegistry meterRegistry) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(properties.timeout())
+                // The JDK client defaults to HTTP/2, which sends an h2c upgrade request on every new connection
+                .version(properties.http2().enabled() ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(properties.timeout());
+
+        return RestClient.builder()
+                .requestFactory(requestFactory)
+                .requestInterceptor(new RestClientTimingInterceptor(name, meterRegistry));
+    }
+}
@@ -1,24 +1,135 @@
 package com.example.similarityaggregator.infrastructure.rest.config;
 
+import com.example.similarityaggregator.infrastructure.rest.bulkhead.KeyedBulkhead;
 import com.example.similarityaggregator.infrastructure.rest.filter.WebClientTimingFilter;
+import com.example.similarityaggregator.infrastructure.rest.hedging.RequestHedger;
+import com.example.similarityaggregator.infrastructure.rest.limiter.AdaptiveConcurrencyLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.EventLoopGroup;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.Http2AllocationStrategy;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 @Configuration
 @EnableConfigurationProperties(SimilarProductsApiProperties.class)
 public class WebClientConfig {
 
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider similarIdsConnectionProvider(SimilarProductsApiProperties properties) {
+        return connectionProvider(SimilarProductsApiProperties.SIMILAR_IDS_POOL, properties);
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider productDetailConnectionProvider(SimilarProductsApiProperties properties) {
+        return connectionProvider(SimilarProductsApiProperties.PRODUCT_DETAIL_POOL, properties);
+    }
+
+    @Bean
+    public WebClient.Builder similarIdsWebClientBuilder(SimilarProductsApiProperties properties,
+                                                        ConnectionProvider similarIdsConnectionProvider,
+                                                        ObjectProvider<EventLoopGroup> clientEventLoopGroup,
+                                                        MeterRegistry meterRegistry) {
+        return webClientBuilder(SimilarProductsApiProperties.SIMILAR_IDS_POOL, properties,
+                similarIdsConnectionProvider, clientEventLoopGroup.getIfAvailable(), meterRegistry);
+    }
+
+    @Bean
+    public WebClient.Builder productDetailWebClientBuilder(SimilarProductsApiProperties properties,
+                                                           ConnectionProvider productDetailConnectionProvider,
+                                                           ObjectProvider<EventLoopGroup> clientEventLoopGroup,
+                                                           MeterRegistry meterRegistry) {
+        return webClientBuilder(SimilarProductsApiProperties.PRODUCT_DETAIL_POOL, properties,
+                productDetailConnectionProvider, clientEventLoopGroup.getIfAvailable(), meterRegistry);
+    }
+
+    @Bean
+    public RequestHedger productDetailRequestHedger(SimilarProductsApiProperties properties,
+                                                    MeterRegistry meterRegistry) {
+        return new RequestHedger("product-detail", properties.hedging(), meterRegistry);
+    }
+
     @Bean
-    public WebClient.Builder webClientBuilder(SimilarProductsApiProperties properties) {
-        HttpClient httpClient = HttpClient.create()
-                .responseTimeout(properties.timeout());
+    public AdaptiveConcurrencyLimiter productDetailConcurrencyLimiter(SimilarProductsApiProperties properties,
+                                                                      MeterRegistry meterRegistry) {
+        return new AdaptiveConcurrencyLimiter("product-detail", properties.concurrencyLimit(), meterRegistry);
+    }
+
+    /**
+     * Caps the upstream calls for a single product, so one slow product cannot take the permits of the
+     * per-upstream bulkhead on its own.
+     */
+    @Bean
+    public KeyedBulkhead similarIdsKeyedBulkhead(SimilarProductsApiProperties properties,
+                                                 MeterRegistry meterRegistry) {
+        return new KeyedBulkhead("similar-ids", properties.maxConcurrentCallsPerProduct(), meterRegistry);
+    }
+
+    @Bean
+    public KeyedBulkhead productDetailKeyedBulkhead(SimilarProductsApiProperties properties,
+                                                    MeterRegistry meterRegistry) {
+        return new KeyedBulkhead("product-detail", properties.maxConcurrentCallsPerProduct(), meterRegistry);
+    }
+
+    /**
+     * One pool per upstream endpoint, so a slow endpoint cannot starve the other of connections.
+     * Pool gauges and the acquire timer are published as reactor.netty.connection.provider.* tagged
+     * with the pool name.
+     * <p>
+     * With HTTP/2 a connection only opens once the others carry {@code maxConcurrentStreams} streams
+     * each; {@code maxConnections} still caps them, including HTTP/1.1 connections after a refused upgrade.
+     */
+    private static ConnectionProvider connectionProvider(String name, SimilarProductsApiProperties properties) {
+        SimilarProductsApiProperties.Pool pool = properties.pool(name);
+        SimilarProductsApiProperties.Http2 http2 = properties.http2();
+
+        ConnectionProvider.Builder builder = ConnectionProvider.builder(name)
+                .maxConnections(pool.maxConnections())
+                .pendingAcquireMaxCount(pool.pendingAcquireMaxCount())
+                .pendingAcquireTimeout(pool.pendingAcquireTimeout())
+                .maxIdleTime(pool.maxIdleTime())
+                .maxLifeTime(pool.maxLifeTime())
+                .evictInBackground(pool.evictionInterval())
+                .metrics(true);
+        if (http2.enabled()) {
+            builder.allocationStrategy(Http2AllocationStrategy.builder()
+                    .maxConnections(pool.maxConnections())
+                    .maxConcurrentStreams(http2.maxConcurrentStreams())
+                    .minConnections(1)
+                    .build());
+        }
+        return builder.build();
+    }
+
+    private static WebClient.Builder webClientBuilder(String name, SimilarProductsApiProperties properties,
+                                                      ConnectionProvider connectionProvider,
+                                                      EventLoopGroup eventLoopGroup,
+                                                      MeterRegistry meterRegistry) {
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .keepAlive(properties.pool(name).keepAlive())
+                .responseTimeout(properties.timeout())
+                .protocol(protocols(properties.http2()));
+        if (eventLoopGroup != null) {
+            httpClient = httpClient.runOn(eventLoopGroup);
+        }
 
         return WebClient.builder()
                 .clientConnector(new ReactorClientHttpConnector(httpClient))
-                .filter(new WebClientTimingFilter());
+                .filter(new WebClientTimingFilter(name, meterRegistry));
+    }
+
+    private static HttpProtocol[] protocols(SimilarProductsApiProperties.Http2 http2) {
+        if (!http2.enabled()) {
+            return new HttpProtocol[]{HttpProtocol.HTTP11};
+        }
+        return http2.priorKnowledge()
+                ? new HttpProtocol[]{HttpProtocol.H2C}
+                : new HttpProtocol[]{HttpProtocol.H2C, HttpProtocol.HTTP11};
     }
-}
\ No newline at end of file
+}
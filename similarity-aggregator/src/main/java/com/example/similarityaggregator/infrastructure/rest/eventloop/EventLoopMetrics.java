@@ -0,0 +1,71 @@
+package com.example.similarityaggregator.infrastructure.rest.eventloop;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes, for every loop of a group, the tasks waiting to run ({@code netty.eventloop.pending.tasks})
+ * and how late a task scheduled on it actually runs ({@code netty.eventloop.latency}). A loop kept
+ * busy by I/O or blocking code shows up as growing latency long before requests time out.
+ */
+public class EventLoopMetrics implements AutoCloseable {
+
+    private final long intervalNanos;
+    private final List<Future<?>> probes = new ArrayList<>();
+    private volatile boolean closed;
+
+    public EventLoopMetrics(String group, EventLoopGroup eventLoopGroup, Duration probeInterval,
+                            MeterRegistry meterRegistry) {
+        this.intervalNanos = probeInterval.toNanos();
+        Timer latency = Timer.builder("netty.eventloop.latency")
+                .tag("group", group)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+
+        int index = 0;
+        for (EventExecutor loop : eventLoopGroup) {
+            if (loop instanceof SingleThreadEventExecutor executor) {
+                Gauge.builder("netty.eventloop.pending.tasks", executor, SingleThreadEventExecutor::pendingTasks)
+                        .tag("group", group)
+                        .tag("loop", String.valueOf(index))
+                        .register(meterRegistry);
+            }
+            index++;
+            probe(loop, latency, System.nanoTime() + intervalNanos);
+        }
+    }
+
+    private void probe(EventExecutor loop, Timer latency, long dueAt) {
+        if (closed) {
+            return;
+        }
+        Future<?> probe = loop.schedule(() -> {
+            long now = System.nanoTime();
+            latency.record(Math.max(0, now - dueAt), TimeUnit.NANOSECONDS);
+            probe(loop, latency, now + intervalNanos);
+        }, intervalNanos, TimeUnit.NANOSECONDS);
+        synchronized (probes) {
+            probes.add(probe);
+            probes.removeIf(Future::isDone);
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        synchronized (probes) {
+            probes.forEach(probe -> probe.cancel(false));
+            probes.clear();
+        }
+    }
+}
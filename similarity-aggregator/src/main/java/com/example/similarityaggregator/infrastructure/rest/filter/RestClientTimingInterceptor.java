@@ -0,0 +1,74 @@
+package com.example.similarityaggregator.infrastructure.rest.filter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.http.Outcome;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+/**
+ * {@link WebClientTimingFilter} for the blocking {@link RestClient}s: same {@code upstream.requests}
+ * timer and tags, so both modes can be compared on one dashboard.
+ */
+public class RestClientTimingInterceptor implements ClientHttpRequestInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(RestClientTimingInterceptor.class);
+
+    private static final String URI_TEMPLATE_ATTRIBUTE = RestClient.class.getName() + ".uriTemplate";
+    private static final Pattern SCHEME_AND_AUTHORITY = Pattern.compile("^https?://[^/]+");
+
+    private final String client;
+    private final MeterRegistry meterRegistry;
+
+    public RestClientTimingInterceptor(String client, MeterRegistry meterRegistry) {
+        this.client = client;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        String uri = uriTemplate(request);
+        log.debug("Calling upstream {} {}", request.getMethod().name(), uri);
+        Timer.Sample sample = Timer.start(meterRegistry);
+
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            int status = response.getStatusCode().value();
+            sample.stop(timer(request, uri, String.valueOf(status), Outcome.forStatus(status).name()));
+            return response;
+        } catch (IOException e) {
+            sample.stop(timer(request, uri, "IO_ERROR", Outcome.UNKNOWN.name()));
+            throw e;
+        } catch (RuntimeException e) {
+            sample.stop(timer(request, uri, "CLIENT_ERROR", Outcome.UNKNOWN.name()));
+            throw e;
+        }
+    }
+
+    private Timer timer(HttpRequest request, String uri, String status, String outcome) {
+        return Timer.builder("upstream.requests")
+                .description("Calls to the upstream product APIs")
+                .tags(Tags.of(
+                        "client", client,
+                        "method", request.getMethod().name(),
+                        "uri", uri,
+                        "status", status,
+                        "outcome", outcome))
+                .register(meterRegistry);
+    }
+
+    private static String uriTemplate(HttpRequest request) {
+        Object template = request.getAttributes().get(URI_TEMPLATE_ATTRIBUTE);
+        return template != null ? SCHEME_AND_AUTHORITY.matcher(template.toString()).replaceFirst("") : "none";
+    }
+}
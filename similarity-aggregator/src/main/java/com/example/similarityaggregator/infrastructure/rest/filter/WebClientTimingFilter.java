@@ -1,33 +1,76 @@
 package com.example.similarityaggregator.infrastructure.rest.filter;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.http.Outcome;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.reactive.function.client.ClientRequest;
 import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+/**
+ * Times every upstream call into the {@code upstream.requests} timer, tagged by client, method, URI
+ * template, status and outcome. Tags never carry the expanded URL, so their cardinality stays bounded.
+ */
 public class WebClientTimingFilter implements ExchangeFilterFunction {
 
     private static final Logger log = LoggerFactory.getLogger(WebClientTimingFilter.class);
 
+    private static final String URI_TEMPLATE_ATTRIBUTE = WebClient.class.getName() + ".uriTemplate";
+    private static final Pattern SCHEME_AND_AUTHORITY = Pattern.compile("^https?://[^/]+");
+
+    private final String client;
+    private final MeterRegistry meterRegistry;
+
+    public WebClientTimingFilter(String client, MeterRegistry meterRegistry) {
+        this.client = client;
+        this.meterRegistry = meterRegistry;
+    }
+
     @Override
     public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
-        long startTime = System.currentTimeMillis();
-        String method = request.method().name();
-        String url = request.url().toString();
-
-        log.debug("Applying time filter: {} {}", method, url);
-
-        return next.exchange(request)
-                .doOnSuccess(response -> {
-                    long elapsed = System.currentTimeMillis() - startTime;
-                    log.info("? {} {} - {} ({}ms)", method, url, response.statusCode().value(), elapsed);
-                })
-                .doOnError(error -> {
-                    long elapsed = System.currentTimeMillis() - startTime;
-                    log.error("✗ {} {} - ({}ms)", method, url, elapsed);
-                });
+        String uri = uriTemplate(request);
+
+        return Mono.defer(() -> {
+            log.debug("Calling upstream {} {}", request.method().name(), uri);
+            Timer.Sample sample = Timer.start(meterRegistry);
+
+            return next.exchange(request)
+                    .doOnSuccess(response -> sample.stop(timer(request, uri,
+                            String.valueOf(response.statusCode().value()),
+                            Outcome.forStatus(response.statusCode().value()).name())))
+                    .doOnError(error -> sample.stop(timer(request, uri,
+                            error instanceof IOException || error.getCause() instanceof IOException
+                                    ? "IO_ERROR" : "CLIENT_ERROR",
+                            Outcome.UNKNOWN.name())))
+                    // Hedged calls that lose the race end here
+                    .doOnCancel(() -> sample.stop(timer(request, uri, "CANCELLED", Outcome.UNKNOWN.name())));
+        });
+    }
+
+    private Timer timer(ClientRequest request, String uri, String status, String outcome) {
+        return Timer.builder("upstream.requests")
+                .description("Calls to the upstream product APIs")
+                .tags(Tags.of(
+                        "client", client,
+                        "method", request.method().name(),
+                        "uri", uri,
+                        "status", status,
+                        "outcome", outcome))
+                .register(meterRegistry);
+    }
+
+    private static String uriTemplate(ClientRequest request) {
+        return request.attribute(URI_TEMPLATE_ATTRIBUTE)
+                .map(template -> SCHEME_AND_AUTHORITY.matcher(template.toString()).replaceFirst(""))
+                .orElse("none");
     }
-}
\ No newline at end of file
+}
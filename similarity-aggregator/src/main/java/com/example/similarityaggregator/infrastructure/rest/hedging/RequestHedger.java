@@ -0,0 +1,142 @@
+package com.example.similarityaggregator.infrastructure.rest.hedging;
+
+import com.example.similarityaggregator.infrastructure.rest.config.SimilarProductsApiProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Sends a second copy of a call that is taking longer than most recent calls did, and answers with
+ * whichever copy finishes first; the other one is cancelled.
+ * <p>
+ * The delay follows a latency percentile of the last {@code window} completed calls. Extra load is
+ * capped by a token budget: every call earns {@code budget}% of a token and every hedge spends a whole
+ * one, so hedging stops on its own when the upstream is slow across the board.
+ */
+public class RequestHedger {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestHedger.class);
+
+    private static final long TOKEN = 1_000;
+    private static final long MAX_TOKENS = 10 * TOKEN;
+
+    private final String name;
+    private final SimilarProductsApiProperties.Hedging policy;
+    private final long earnedPerCall;
+    private final AtomicLong tokens = new AtomicLong();
+
+    private final long[] latencies;
+    private long recorded;
+    private volatile long delayNanos;
+
+    private final Counter hedged;
+    private final Counter rejected;
+    private final Counter hedgeWins;
+
+    public RequestHedger(String name, SimilarProductsApiProperties.Hedging policy, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.policy = policy;
+        this.earnedPerCall = Math.round(policy.budget() / 100 * TOKEN);
+        this.latencies = new long[policy.window()];
+        this.delayNanos = policy.initialDelay().toNanos();
+
+        this.hedged = counter(meterRegistry, "upstream.hedge.requests", "result", "sent");
+        this.rejected = counter(meterRegistry, "upstream.hedge.requests", "result", "over_budget");
+        this.hedgeWins = counter(meterRegistry, "upstream.hedge.wins", "winner", "hedge");
+        Gauge.builder("upstream.hedge.delay", this, hedger -> hedger.delayNanos / 1_000_000.0)
+                .tag("name", name)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    public <T> Mono<T> hedge(Supplier<Mono<T>> call) {
+        return hedge(call, UnaryOperator.identity());
+    }
+
+    /**
+     * @param admission wraps each copy of the call, e.g. in a concurrency limit; time spent there is
+     *                  not part of the latency the delay is computed from
+     */
+    public <T> Mono<T> hedge(Supplier<Mono<T>> call, UnaryOperator<Mono<T>> admission) {
+        if (!policy.enabled()) {
+            return admission.apply(Mono.defer(call));
+        }
+        tokens.accumulateAndGet(earnedPerCall, (current, earned) -> Math.min(MAX_TOKENS, current + earned));
+
+        AtomicBoolean hedgeWon = new AtomicBoolean();
+        Mono<T> primary = admission.apply(timed(call, hedgeWon));
+        Mono<T> backup = Mono.delay(Duration.ofNanos(delayNanos))
+                .flatMap(tick -> {
+                    if (!tryAcquireToken()) {
+                        rejected.increment();
+                        return Mono.never();
+                    }
+                    hedged.increment();
+                    log.debug("Hedging slow call name={}, after={}ms", name, delayNanos / 1_000_000);
+                    return admission.apply(timed(call, null))
+                            .doOnNext(value -> hedgeWon.set(true))
+                            .doOnSuccess(value -> hedgeWins.increment());
+                });
+
+        // A failing hedge must not beat a primary that may still succeed, so it only ever wins with a value
+        return Mono.firstWithSignal(primary, backup.onErrorResume(e -> Mono.never()));
+    }
+
+    /**
+     * @param censored set once a hedge has won; a call cancelled after that is sampled with the time it
+     *                 had taken so far, as it would have taken at least that long. Without it only the
+     *                 fast copies would be sampled and the delay would keep shrinking.
+     */
+    private <T> Mono<T> timed(Supplier<Mono<T>> call, AtomicBoolean censored) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return call.get()
+                    .doOnSuccess(value -> record(System.nanoTime() - start))
+                    .doOnCancel(() -> {
+                        if (censored != null && censored.get()) {
+                            record(System.nanoTime() - start);
+                        }
+                    });
+        });
+    }
+
+    private boolean tryAcquireToken() {
+        long current;
+        do {
+            current = tokens.get();
+            if (current < TOKEN) {
+                return false;
+            }
+        } while (!tokens.compareAndSet(current, current - TOKEN));
+        return true;
+    }
+
+    private synchronized void record(long latencyNanos) {
+        latencies[(int) (recorded % latencies.length)] = latencyNanos;
+        recorded++;
+        // Sorting the window on every call would cost more than the calls it speeds up
+        if (recorded >= latencies.length && recorded % Math.max(1, latencies.length / 10) == 0) {
+            long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            long percentile = sorted[(int) Math.ceil(policy.percentile() * sorted.length) - 1];
+            delayNanos = Math.max(policy.minDelay().toNanos(), percentile);
+        }
+    }
+
+    private Counter counter(MeterRegistry meterRegistry, String meter, String tag, String value) {
+        return Counter.builder(meter)
+                .tag("name", name)
+                .tag(tag, value)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.similarityaggregator.infrastructure.rest.limiter;
+
+import com.example.similarityaggregator.infrastructure.rest.config.SimilarProductsApiProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Caps the upstream calls in flight across all requests, with a limit that follows upstream latency
+ * (AIMD): a call much slower than the long-run average shrinks the limit by {@code backoffRatio}, any
+ * other call grows it by one while it is actually being used. Calls over the limit wait in FIFO order,
+ * and are let in as permits are released or the limit grows.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    // Weight of a new sample in the long-run latency average; low so that a burst of slow calls stands out
+    private static final double BASELINE_WEIGHT = 0.01;
+
+    private final SimilarProductsApiProperties.ConcurrencyLimit policy;
+    private final Queue<Waiter> waiters = new ArrayDeque<>();
+    private final Timer queueTime;
+
+    private double limit;
+    private int inFlight;
+    private double baselineNanos;
+
+    public AdaptiveConcurrencyLimiter(String name, SimilarProductsApiProperties.ConcurrencyLimit policy,
+                                      MeterRegistry meterRegistry) {
+        this.policy = policy;
+        this.limit = policy.initialLimit();
+        this.queueTime = Timer.builder("upstream.limiter.queue.time")
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("upstream.limiter.limit", this, AdaptiveConcurrencyLimiter::currentLimit)
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("upstream.limiter.in.flight", this, limiter -> limiter.snapshot(() -> limiter.inFlight))
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("upstream.limiter.queued", this, limiter -> limiter.snapshot(limiter.waiters::size))
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    public <T> Mono<T> limit(Supplier<Mono<T>> call) {
+        if (!policy.enabled()) {
+            return call.get();
+        }
+        return Mono.defer(() -> {
+            Waiter waiter = new Waiter(System.nanoTime());
+            Mono<Void> permit = enter(waiter) ? Mono.empty() : waiter.granted.asMono();
+
+            return permit
+                    .then(Mono.defer(() -> {
+                        queueTime.record(System.nanoTime() - waiter.queuedAt, TimeUnit.NANOSECONDS);
+                        long start = System.nanoTime();
+                        return call.get()
+                                .doOnSuccess(value -> onSample(System.nanoTime() - start))
+                                .doOnError(error -> onSample(System.nanoTime() - start));
+                    }))
+                    .doFinally(signal -> leave(waiter));
+        });
+    }
+
+    public synchronized double currentLimit() {
+        return limit;
+    }
+
+    private synchronized boolean enter(Waiter waiter) {
+        // Nobody overtakes a queued call, even when the limit has room
+        if (waiters.isEmpty() && inFlight < (int) limit) {
+            inFlight++;
+            waiter.state.set(Waiter.GRANTED);
+            return true;
+        }
+        waiters.add(waiter);
+        return false;
+    }
+
+    private void leave(Waiter waiter) {
+        List<Waiter> granted;
+        synchronized (this) {
+            // A waiter cancelled while queued never held a permit
+            if (waiter.state.compareAndSet(Waiter.WAITING, Waiter.CANCELLED)) {
+                waiters.remove(waiter);
+            } else {
+                inFlight--;
+            }
+            granted = admitWaiters();
+        }
+        granted.forEach(next -> next.granted.tryEmitEmpty());
+    }
+
+    private void onSample(long latencyNanos) {
+        List<Waiter> granted;
+        synchronized (this) {
+            if (baselineNanos == 0) {
+                baselineNanos = latencyNanos;
+            }
+            if (latencyNanos > baselineNanos * policy.latencyTolerance()) {
+                limit = Math.max(policy.minLimit(), limit * policy.backoffRatio());
+            } else if (inFlight * 2 >= limit) {
+                limit = Math.min(policy.maxLimit(), limit + 1);
+            }
+            baselineNanos += (latencyNanos - baselineNanos) * BASELINE_WEIGHT;
+            granted = admitWaiters();
+        }
+        granted.forEach(next -> next.granted.tryEmitEmpty());
+    }
+
+    /**
+     * Takes queued calls off the queue, in order, while the limit has room. The caller holds the
+     * monitor and signals the returned waiters once it has released it.
+     */
+    private List<Waiter> admitWaiters() {
+        List<Waiter> granted = new ArrayList<>();
+        while (inFlight < (int) limit && !waiters.isEmpty()) {
+            Waiter next = waiters.poll();
+            if (next.state.compareAndSet(Waiter.WAITING, Waiter.GRANTED)) {
+                inFlight++;
+                granted.add(next);
+            }
+        }
+        return granted;
+    }
+
+    private synchronized double snapshot(Supplier<Integer> value) {
+        return value.get();
+    }
+
+    private static final class Waiter {
+
+        static final int WAITING = 0;
+        static final int GRANTED = 1;
+        static final int CANCELLED = 2;
+
+        final long queuedAt;
+        final AtomicInteger state = new AtomicInteger(WAITING);
+        final Sinks.Empty<Void> granted = Sinks.empty();
+
+        Waiter(long queuedAt) {
+            this.queuedAt = queuedAt;
+        }
+    }
+}
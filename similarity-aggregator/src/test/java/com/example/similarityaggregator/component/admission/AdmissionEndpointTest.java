@@ -0,0 +1,33 @@
+package com.example.similarityaggregator.component.admission;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webtestclient.autoconfigure.AutoConfigureWebTestClient;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "similar-products.admission.enabled=true")
+@AutoConfigureWebTestClient
+class AdmissionEndpointTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    @DisplayName("Should report the admission limits and the current load")
+    void shouldReportAdmissionLimits() {
+        // When & Then
+        webTestClient.get()
+                .uri("/actuator/admission")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.enabled").isEqualTo(true)
+                .jsonPath("$.maxConcurrent").isEqualTo(100)
+                .jsonPath("$.maxQueued").isEqualTo(500)
+                .jsonPath("$.inFlight").isEqualTo(0)
+                .jsonPath("$.overloaded").isEqualTo(false);
+    }
+}
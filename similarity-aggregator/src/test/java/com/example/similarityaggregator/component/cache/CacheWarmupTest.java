@@ -0,0 +1,126 @@
+package com.example.similarityaggregator.component.cache;
+
+import com.example.similarityaggregator.domain.model.Product;
+import com.example.similarityaggregator.infrastructure.cache.CacheWarmer;
+import com.example.similarityaggregator.infrastructure.cache.HotKeySnapshotter;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "similar-products.cache.warmup.enabled=true")
+@WireMockTest(httpPort = 3001)
+class CacheWarmupTest {
+
+    @TempDir
+    static Path snapshotDir;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private HotKeySnapshotter snapshotter;
+
+    @Autowired
+    private CacheWarmer warmer;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void snapshotFile(DynamicPropertyRegistry registry) {
+        registry.add("similar-products.cache.warmup.snapshot-file", () -> snapshotDir.resolve("hot-keys.txt"));
+    }
+
+    @BeforeEach
+    void setUp() {
+        WireMock.reset();
+        cacheManager.getCacheNames().forEach(name -> {
+            var cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("Should preload the keys of the last snapshot from the upstream")
+    void shouldPreloadSnapshottedKeys() {
+        // Given
+        cacheManager.getCache("similar-ids").put("1", List.of("2"));
+        cacheManager.getCache("product-detail").put("2", new Product("2", "Old", BigDecimal.ONE, true));
+        snapshotter.snapshot();
+        cacheManager.getCache("similar-ids").clear();
+        cacheManager.getCache("product-detail").clear();
+
+        stubFor(get(urlEqualTo("/product/1/similarids"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[\"2\", \"3\"]")));
+        stubFor(get(urlEqualTo("/product/2"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("""
+                                {"id": "2", "name": "Dress", "price": 19.99, "availability": true}
+                                """)));
+        double loadedBefore = loadedKeys();
+
+        // When
+        warmer.run(new DefaultApplicationArguments());
+
+        // Then
+        assertThat(cacheManager.getCache("similar-ids").get("1").get()).isEqualTo(List.of("2", "3"));
+        assertThat(cacheManager.getCache("product-detail").get("2").get())
+                .isEqualTo(new Product("2", "Dress", new BigDecimal("19.99"), true));
+        assertThat(loadedKeys() - loadedBefore).isEqualTo(2);
+        assertThat(meterRegistry.find("cache.warmup.duration").timer()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should not let a failing upstream block the warm-up")
+    void shouldSkipKeysThatFailToLoad() {
+        // Given
+        cacheManager.getCache("product-detail").put("5", new Product("5", "Boots", BigDecimal.TEN, false));
+        snapshotter.snapshot();
+        cacheManager.getCache("product-detail").clear();
+
+        stubFor(get(urlEqualTo("/product/5")).willReturn(aResponse().withStatus(500)));
+        double failedBefore = failedKeys();
+
+        // When
+        warmer.run(new DefaultApplicationArguments());
+
+        // Then
+        assertThat(cacheManager.getCache("product-detail").get("5")).isNull();
+        assertThat(failedKeys() - failedBefore).isEqualTo(1);
+    }
+
+    private double failedKeys() {
+        var counter = meterRegistry.find("cache.warmup.keys")
+                .tags("cache", "product-detail", "result", "failed")
+                .counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private double loadedKeys() {
+        return meterRegistry.find("cache.warmup.keys").tag("result", "loaded").counters().stream()
+                .mapToDouble(counter -> counter.count())
+                .sum();
+    }
+}
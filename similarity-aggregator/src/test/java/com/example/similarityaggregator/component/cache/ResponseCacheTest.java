@@ -0,0 +1,149 @@
+package com.example.similarityaggregator.component.cache;
+
+import com.example.similarityaggregator.infrastructure.cache.LastKnownGoodStore;
+import com.example.similarityaggregator.infrastructure.cache.ResponseCache;
+import com.example.similarityaggregator.infrastructure.rest.adapter.in.dto.ProductResponse;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webtestclient.autoconfigure.AutoConfigureWebTestClient;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+@WireMockTest(httpPort = 3001)
+class ResponseCacheTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ResponseCache responseCache;
+
+    @Autowired
+    private LastKnownGoodStore lastKnownGoodStore;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        WireMock.reset();
+        cacheManager.getCacheNames().forEach(name -> {
+            var cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        });
+        responseCache.clear();
+        lastKnownGoodStore.clear();
+    }
+
+    @Test
+    @DisplayName("Should answer a repeated request from the response cache")
+    void shouldServeRepeatedRequestFromResponseCache() {
+        // Given
+        stubSimilarIds("10", "[\"11\"]");
+        stubProduct("11", "Shirt");
+
+        expectProduct("10", new ProductResponse("11", "Shirt", new BigDecimal("9.99"), true));
+        double hitsBefore = responseCacheHits();
+
+        // When
+        expectProduct("10", new ProductResponse("11", "Shirt", new BigDecimal("9.99"), true));
+
+        // Then
+        assertThat(responseCacheHits() - hitsBefore).isEqualTo(1);
+        verify(1, getRequestedFor(urlEqualTo("/product/11")));
+    }
+
+    @Test
+    @DisplayName("Should rebuild the response once a product it contains changes")
+    void shouldRebuildResponseAfterDependencyChange() {
+        // Given
+        stubSimilarIds("20", "[\"21\"]");
+        stubProduct("21", "Shirt");
+        expectProduct("20", new ProductResponse("21", "Shirt", new BigDecimal("9.99"), true));
+
+        // When
+        stubProduct("21", "Dress");
+        cacheManager.getCache("product-detail").evict("21");
+
+        // Then
+        await().atMost(Duration.ofSeconds(3)).untilAsserted(() ->
+                expectProduct("20", new ProductResponse("21", "Dress", new BigDecimal("9.99"), true)));
+    }
+
+    @Test
+    @DisplayName("Should not cache a response missing a product that failed upstream")
+    void shouldNotCachePartialResponses() {
+        // Given
+        stubSimilarIds("30", "[\"31\", \"32\"]");
+        stubProduct("31", "Shirt");
+        stubFor(get(urlEqualTo("/product/32")).willReturn(aResponse().withStatus(500)));
+
+        webTestClient.get()
+                .uri("/product/30/similar")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ProductResponse.class)
+                .hasSize(1);
+
+        // When
+        stubProduct("32", "Dress");
+
+        // Then
+        webTestClient.get()
+                .uri("/product/30/similar")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ProductResponse.class)
+                .hasSize(2);
+    }
+
+    private double responseCacheHits() {
+        return meterRegistry.get("response.cache.gets").tag("result", "hit").counter().count();
+    }
+
+    private void expectProduct(String productId, ProductResponse expected) {
+        webTestClient.get()
+                .uri("/product/{productId}/similar", productId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ProductResponse.class)
+                .hasSize(1)
+                .contains(expected);
+    }
+
+    private static void stubSimilarIds(String productId, String body) {
+        stubFor(get(urlEqualTo("/product/" + productId + "/similarids"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(body)));
+    }
+
+    private static void stubProduct(String productId, String name) {
+        stubFor(get(urlEqualTo("/product/" + productId))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("""
+                                {"id": "%s", "name": "%s", "price": 9.99, "availability": true}
+                                """.formatted(productId, name))));
+    }
+}
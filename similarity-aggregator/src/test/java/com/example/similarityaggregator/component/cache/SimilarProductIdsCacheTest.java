@@ -1,5 +1,6 @@
 package com.example.similarityaggregator.component.cache;
 
+import com.example.similarityaggregator.domain.exception.ProductNotFoundException;
 import com.example.similarityaggregator.infrastructure.rest.adapter.out.SimilarProductIdsRestAdapter;
 import com.github.tomakehurst.wiremock.client.WireMock;
 import com.github.tomakehurst.wiremock.junit5.WireMockTest;
@@ -95,4 +96,23 @@ class SimilarProductIdsCacheTest {
         verify(1, getRequestedFor(urlEqualTo("/product/1/similarids")));
         verify(1, getRequestedFor(urlEqualTo("/product/2/similarids")));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should not call API again for a product known to be missing")
+    void shouldCacheNotFoundResponses() {
+        // Given
+        stubFor(get(urlEqualTo("/product/5/similarids"))
+                .willReturn(notFound()));
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            StepVerifier.create(adapter.getSimilarIds("5"))
+                    .expectError(ProductNotFoundException.class)
+                    .verify();
+        }
+
+        // Then
+        verify(1, getRequestedFor(urlEqualTo("/product/5/similarids")));
+        assertThat(cacheManager.getCache("similar-ids-not-found").get("5")).isNotNull();
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.similarityaggregator.component.cache;
+
+import com.example.similarityaggregator.infrastructure.rest.adapter.out.SimilarProductIdsRestAdapter;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@SpringBootTest(properties = {
+        "similar-products.cache.policies.similar-ids.soft-ttl=300ms",
+        "similar-products.cache.policies.similar-ids.hard-ttl=2s"
+})
+@WireMockTest(httpPort = 3001)
+class StaleWhileRevalidateCacheTest {
+
+    @Autowired
+    private SimilarProductIdsRestAdapter adapter;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        WireMock.reset();
+        cacheManager.getCacheNames().forEach(name -> {
+            var cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("Should serve stale value past soft TTL and reload it in background")
+    void shouldServeStaleValueAndReloadInBackground() throws InterruptedException {
+        // Given
+        stubFor(get(urlEqualTo("/product/1/similarids"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[\"2\", \"3\"]")));
+
+        StepVerifier.create(adapter.getSimilarIds("1"))
+                .expectNext(List.of("2", "3"))
+                .verifyComplete();
+
+        stubFor(get(urlEqualTo("/product/1/similarids"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[\"4\"]")
+                        .withFixedDelay(500)));
+
+        Thread.sleep(400);
+
+        // When - stale read returns immediately with the old value
+        StepVerifier.create(adapter.getSimilarIds("1"))
+                .expectNext(List.of("2", "3"))
+                .expectComplete()
+                .verify(Duration.ofMillis(250));
+
+        // Then - the background reload replaces the entry
+        await().atMost(Duration.ofSeconds(3)).untilAsserted(() ->
+                assertThat(cacheManager.getCache("similar-ids").get("1").get()).isEqualTo(List.of("4")));
+        verify(2, getRequestedFor(urlEqualTo("/product/1/similarids")));
+    }
+
+    @Test
+    @DisplayName("Should drop a stale entry at the hard TTL while its refreshes keep failing")
+    void shouldExpireAtHardTtlWhileRefreshesFail() {
+        // Given
+        stubFor(get(urlEqualTo("/product/5/similarids"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[\"6\"]")));
+
+        StepVerifier.create(adapter.getSimilarIds("5"))
+                .expectNext(List.of("6"))
+                .verifyComplete();
+
+        stubFor(get(urlEqualTo("/product/5/similarids"))
+                .willReturn(aResponse().withStatus(500)));
+        Cache cache = cacheManager.getCache("similar-ids");
+
+        // When - every read past the soft TTL starts a refresh that fails
+        await().pollInterval(Duration.ofMillis(200)).atMost(Duration.ofSeconds(4)).until(() ->
+                cache.retrieve("5") == null);
+
+        // Then - the stale value was served until the hard TTL, never written back by a failed refresh
+        verify(moreThan(1), getRequestedFor(urlEqualTo("/product/5/similarids")));
+        assertThat(cache.retrieve("5")).isNull();
+    }
+}
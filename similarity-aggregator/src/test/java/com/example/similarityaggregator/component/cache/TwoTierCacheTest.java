@@ -0,0 +1,155 @@
+package com.example.similarityaggregator.component.cache;
+
+import com.example.similarityaggregator.domain.model.Product;
+import com.example.similarityaggregator.infrastructure.rest.adapter.out.ProductDetailRestAdapter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "similar-products.cache.policies.product-detail.off-heap.capacity=1MB")
+@WireMockTest(httpPort = 3001)
+class TwoTierCacheTest {
+
+    @Autowired
+    private ProductDetailRestAdapter adapter;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        WireMock.reset();
+        cacheManager.getCacheNames().forEach(name -> {
+            var cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("Should promote an entry evicted from heap back from the off-heap tier")
+    void shouldPromoteFromOffHeapTier() {
+        // Given
+        stubFor(get(urlEqualTo("/product/1"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("""
+                                {"id": "1", "name": "Shirt ñ", "price": 9.99, "availability": true}
+                                """)));
+
+        Product expected = new Product("1", "Shirt ñ", new BigDecimal("9.99"), true);
+
+        StepVerifier.create(adapter.getProductDetail("1"))
+                .expectNext(expected)
+                .verifyComplete();
+
+        var cache = cacheManager.getCache("product-detail");
+        heapTier(cache).invalidate("1");
+
+        // When & Then
+        StepVerifier.create(adapter.getProductDetail("1"))
+                .expectNext(expected)
+                .verifyComplete();
+
+        assertThat(heapTier(cache).getIfPresent("1")).isEqualTo(expected);
+        verify(1, getRequestedFor(urlEqualTo("/product/1")));
+    }
+
+    @Test
+    @DisplayName("Should keep similar id lists in the off-heap tier")
+    void shouldKeepSimilarIdsOffHeap() {
+        // Given
+        var cache = cacheManager.getCache("similar-ids");
+        cache.put("1", List.of("2", "3", "4"));
+        heapTier(cache).invalidate("1");
+
+        // When & Then
+        assertThat(cache.get("1").get()).isEqualTo(List.of("2", "3", "4"));
+    }
+
+    @Test
+    @DisplayName("Should read every key back intact while freed off-heap blocks are reused")
+    void shouldReuseFreedOffHeapBlocks() {
+        // Given
+        var cache = cacheManager.getCache("similar-ids");
+        for (int round = 0; round < 50; round++) {
+            for (int key = 0; key < 20; key++) {
+                cache.put(key, List.of(round + "-" + key));
+            }
+        }
+
+        // When
+        heapTier(cache).invalidateAll();
+
+        // Then
+        for (int key = 0; key < 20; key++) {
+            assertThat(cache.get(key).get()).isEqualTo(List.of("49-" + key));
+        }
+        assertThat(meterRegistry.get("cache.l2.reserved").tag("cache", "similar-ids").gauge().value())
+                .isEqualTo(16 * 1024 * 1024);
+    }
+
+    @Test
+    @DisplayName("Should keep storing new keys off-heap after writing more than its capacity")
+    void shouldStoreNewKeysPastOffHeapCapacity() {
+        // Given - small entries fill the 1MB tier twice over
+        var cache = cacheManager.getCache("product-detail");
+        for (int key = 0; key < 8_000; key++) {
+            cache.put("small-" + key, new Product("small-" + key, "x".repeat(200), BigDecimal.ONE, true));
+        }
+        double rejectedBefore = rejected("product-detail");
+
+        // When - larger entries need blocks of a size no small entry freed
+        for (int key = 0; key < 100; key++) {
+            cache.put("large-" + key, new Product("large-" + key, "x".repeat(3_000), BigDecimal.ONE, true));
+        }
+        heapTier(cache).invalidateAll();
+
+        // Then - every write found room; which of them stay is up to Caffeine's admission policy
+        assertThat(rejected("product-detail")).isEqualTo(rejectedBefore);
+        assertThat(cache.get("large-99")).isNotNull();
+        assertThat(meterRegistry.get("cache.l2.reserved").tag("cache", "product-detail").gauge().value())
+                .isEqualTo(1024 * 1024);
+    }
+
+    @Test
+    @DisplayName("Should drop entries from both tiers on evict")
+    void shouldEvictBothTiers() {
+        // Given
+        var cache = cacheManager.getCache("similar-ids");
+        cache.put("1", List.of("2"));
+
+        // When
+        cache.evict("1");
+
+        // Then
+        assertThat(cache.get("1")).isNull();
+    }
+
+    private double rejected(String cacheName) {
+        return meterRegistry.get("cache.l2.rejected").tag("cache", cacheName).counter().count();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Cache<Object, Object> heapTier(org.springframework.cache.Cache cache) {
+        return (Cache<Object, Object>) cache.getNativeCache();
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.similarityaggregator.component.circuitbreaker;
 
+import com.example.similarityaggregator.application.context.ResponseQuality;
 import com.example.similarityaggregator.domain.exception.ProductNotFoundException;
+import com.example.similarityaggregator.infrastructure.cache.LastKnownGoodStore;
 import com.example.similarityaggregator.infrastructure.rest.adapter.out.ProductDetailRestAdapter;
 import com.example.similarityaggregator.infrastructure.rest.adapter.out.SimilarProductIdsRestAdapter;
 import com.github.tomakehurst.wiremock.client.WireMock;
@@ -13,10 +15,13 @@ import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.util.List;
+
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -45,6 +50,12 @@ class CircuitBreakerTest {
     @Autowired
     private CircuitBreakerRegistry circuitBreakerRegistry;
 
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private LastKnownGoodStore lastKnownGoodStore;
+
     private CircuitBreaker similarIdsCircuitBreaker;
 
     private CircuitBreaker productDetailCircuitBreaker;
@@ -56,6 +67,13 @@ class CircuitBreakerTest {
         productDetailCircuitBreaker = circuitBreakerRegistry.circuitBreaker("productDetail");
         similarIdsCircuitBreaker.reset();
         productDetailCircuitBreaker.reset();
+        cacheManager.getCacheNames().forEach(name -> {
+            var cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        });
+        lastKnownGoodStore.clear();
     }
 
     @Test
@@ -199,4 +217,124 @@ class CircuitBreakerTest {
         // Then
         assertThat(similarIdsCircuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should serve last known good product detail when circuit is open")
+    void shouldServeLastKnownGoodProductDetailWhenCircuitIsOpen() {
+        // Given
+        stubFor(get(urlEqualTo("/product/2"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("""
+                                {"id": "2", "name": "Dress", "price": 19.99, "availability": true}
+                                """)));
+
+        StepVerifier.create(productDetailAdapter.getProductDetail("2"))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        productDetailCircuitBreaker.transitionToOpenState();
+
+        // When & Then
+        StepVerifier.create(productDetailAdapter.getProductDetail("2"))
+                .assertNext(product -> assertThat(product.name()).isEqualTo("Dress"))
+                .verifyComplete();
+
+        verify(1, getRequestedFor(urlEqualTo("/product/2")));
+    }
+
+    @Test
+    @DisplayName("Should serve last known good similar ids when circuit is open")
+    void shouldServeLastKnownGoodSimilarIdsWhenCircuitIsOpen() {
+        // Given
+        stubFor(get(urlEqualTo("/product/4/similarids"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[\"1\", \"2\"]")));
+
+        StepVerifier.create(similarProductIdsRestAdapter.getSimilarIds("4"))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        similarIdsCircuitBreaker.transitionToOpenState();
+
+        // When & Then
+        StepVerifier.create(similarProductIdsRestAdapter.getSimilarIds("4"))
+                .expectNext(List.of("1", "2"))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should not cache the last known good product detail served by the fallback")
+    void shouldNotCacheLastKnownGoodProductDetail() {
+        // Given - the hot cache lost the entry the last known good store still has
+        stubFor(get(urlEqualTo("/product/2"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("""
+                                {"id": "2", "name": "Dress", "price": 19.99, "availability": true}
+                                """)));
+
+        StepVerifier.create(productDetailAdapter.getProductDetail("2"))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        cacheManager.getCache(ProductDetailRestAdapter.CACHE_NAME).clear();
+        productDetailCircuitBreaker.transitionToOpenState();
+
+        // When
+        StepVerifier.create(productDetailAdapter.getProductDetail("2"))
+                .assertNext(product -> assertThat(product.name()).isEqualTo("Dress"))
+                .verifyComplete();
+
+        // Then
+        assertThat(cacheManager.getCache(ProductDetailRestAdapter.CACHE_NAME).retrieve("2")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should not cache the last known good similar ids served by the fallback")
+    void shouldNotCacheLastKnownGoodSimilarIds() {
+        // Given - the hot cache lost the entry the last known good store still has
+        stubFor(get(urlEqualTo("/product/4/similarids"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[\"1\", \"2\"]")));
+
+        StepVerifier.create(similarProductIdsRestAdapter.getSimilarIds("4"))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        cacheManager.getCache(SimilarProductIdsRestAdapter.CACHE_NAME).clear();
+        similarIdsCircuitBreaker.transitionToOpenState();
+
+        // When
+        StepVerifier.create(similarProductIdsRestAdapter.getSimilarIds("4"))
+                .expectNext(List.of("1", "2"))
+                .verifyComplete();
+
+        // Then
+        assertThat(cacheManager.getCache(SimilarProductIdsRestAdapter.CACHE_NAME).retrieve("4")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should end a similar ids stream cut short mid-way without repeating ids from the last known good list")
+    void shouldNotRepeatIdsWhenStreamFailsMidway() {
+        // Given
+        lastKnownGoodStore.remember(SimilarProductIdsRestAdapter.CACHE_NAME, "4", List.of("1", "2", "3"));
+        stubFor(get(urlEqualTo("/product/4/similarids"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[\"1\", \"2\"," + " ".repeat(100) + "}")
+                        .withChunkedDribbleDelay(10, 300)));
+        ResponseQuality quality = new ResponseQuality();
+
+        // When & Then
+        StepVerifier.create(similarProductIdsRestAdapter.streamSimilarIds("4").contextWrite(quality::writeTo))
+                .expectNext("1", "2")
+                .verifyComplete();
+
+        assertThat(quality.isPartial()).isTrue();
+        assertThat(quality.isDegraded()).isFalse();
+        assertThat(similarIdsCircuitBreaker.getMetrics().getNumberOfFailedCalls()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.similarityaggregator.component.rest;
+
+import com.example.similarityaggregator.infrastructure.rest.adapter.out.ProductDetailRestAdapter;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import reactor.test.StepVerifier;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@WireMockTest(httpPort = 3001)
+class ConnectionPoolMetricsTest {
+
+    @Autowired
+    private ProductDetailRestAdapter adapter;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        WireMock.reset();
+        cacheManager.getCacheNames().forEach(name -> {
+            var cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("Should publish metrics of the product detail connection pool")
+    void shouldPublishProductDetailPoolMetrics() {
+        // Given
+        stubFor(get(urlEqualTo("/product/1"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("""
+                                {"id": "1", "name": "Shirt", "price": 9.99, "availability": true}
+                                """)));
+
+        // When
+        StepVerifier.create(adapter.getProductDetail("1"))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        // Then
+        assertThat(meterRegistry.find("reactor.netty.connection.provider.total.connections")
+                .tag("name", "product-detail")
+                .gauge()).isNotNull();
+        assertThat(meterRegistry.find("reactor.netty.connection.provider.pending.connections.time")
+                .tag("name", "product-detail")
+                .timer()).isNotNull();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.similarityaggregator.component.rest;
+
+import com.example.similarityaggregator.infrastructure.rest.adapter.out.ProductDetailRestAdapter;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import reactor.test.StepVerifier;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@WireMockTest(httpPort = 3001)
+class EventLoopIsolationTest {
+
+    @Autowired
+    private ProductDetailRestAdapter adapter;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        WireMock.reset();
+        cacheManager.getCacheNames().forEach(name -> {
+            var cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("Should handle upstream responses on the client event loops")
+    void shouldHandleUpstreamResponsesOnClientLoops() {
+        // Given
+        stubFor(get(urlEqualTo("/product/1"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("""
+                                {"id": "1", "name": "Shirt", "price": 9.99, "availability": true}
+                                """)));
+
+        // When & Then
+        StepVerifier.create(adapter.getProductDetail("1")
+                        .map(product -> Thread.currentThread().getName()))
+                .assertNext(thread -> assertThat(thread).startsWith("client-"))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should publish event loop metrics for the server and the clients")
+    void shouldPublishEventLoopMetrics() {
+        // Then
+        assertThat(meterRegistry.find("netty.eventloop.latency").tag("group", "server").timer()).isNotNull();
+        assertThat(meterRegistry.find("netty.eventloop.latency").tag("group", "client").timer()).isNotNull();
+        assertThat(meterRegistry.find("netty.eventloop.pending.tasks").tag("group", "server").gauges())
+                .isNotEmpty();
+        assertThat(Thread.getAllStackTraces().keySet()).anyMatch(thread -> thread.getName().startsWith("server-"));
+    }
+}
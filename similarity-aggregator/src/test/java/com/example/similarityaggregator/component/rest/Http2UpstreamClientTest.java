@@ -0,0 +1,139 @@
+package com.example.similarityaggregator.component.rest;
+
+import com.example.similarityaggregator.infrastructure.rest.config.SimilarProductsApiProperties;
+import com.example.similarityaggregator.infrastructure.rest.config.WebClientConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.channel.EventLoopGroup;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.test.StepVerifier;
+
+import java.net.SocketAddress;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class Http2UpstreamClientTest {
+
+    private static final int CONCURRENT_CALLS = 20;
+
+    private final WebClientConfig config = new WebClientConfig();
+    private final Set<String> protocols = ConcurrentHashMap.newKeySet();
+    private final Set<SocketAddress> connections = ConcurrentHashMap.newKeySet();
+
+    private DisposableServer upstream;
+    private ConnectionProvider connectionProvider;
+
+    @AfterEach
+    void tearDown() {
+        if (connectionProvider != null) {
+            connectionProvider.dispose();
+        }
+        if (upstream != null) {
+            upstream.disposeNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should multiplex concurrent calls over a single h2c connection with prior knowledge")
+    void shouldMultiplexCallsOverOneConnection() {
+        // Given
+        startUpstream(HttpProtocol.H2C);
+
+        // When
+        StepVerifier.create(concurrentCalls(new SimilarProductsApiProperties.Http2(true, true, 100)))
+                .expectNextCount(CONCURRENT_CALLS)
+                .verifyComplete();
+
+        // Then
+        assertThat(protocols).containsExactly("HTTP/2.0");
+        assertThat(connections).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should open another connection once the stream limit of the existing ones is reached")
+    void shouldOpenAnotherConnectionOverStreamLimit() {
+        // Given
+        startUpstream(HttpProtocol.H2C);
+
+        // When
+        StepVerifier.create(concurrentCalls(new SimilarProductsApiProperties.Http2(true, true, 5)))
+                .expectNextCount(CONCURRENT_CALLS)
+                .verifyComplete();
+
+        // Then
+        assertThat(protocols).containsExactly("HTTP/2.0");
+        assertThat(connections).hasSizeGreaterThanOrEqualTo(CONCURRENT_CALLS / 5);
+    }
+
+    @Test
+    @DisplayName("Should upgrade to h2c when the upstream supports it")
+    void shouldUpgradeToH2c() {
+        // Given
+        startUpstream(HttpProtocol.H2C, HttpProtocol.HTTP11);
+
+        // When
+        StepVerifier.create(concurrentCalls(new SimilarProductsApiProperties.Http2(true, false, 100)))
+                .expectNextCount(CONCURRENT_CALLS)
+                .verifyComplete();
+
+        // Then
+        assertThat(protocols).contains("HTTP/2.0");
+    }
+
+    @Test
+    @DisplayName("Should fall back to HTTP/1.1 when the upstream refuses the upgrade")
+    void shouldFallBackToHttp11() {
+        // Given
+        startUpstream(HttpProtocol.HTTP11);
+
+        // When
+        StepVerifier.create(concurrentCalls(new SimilarProductsApiProperties.Http2(true, false, 100)))
+                .expectNextCount(CONCURRENT_CALLS)
+                .verifyComplete();
+
+        // Then
+        assertThat(protocols).containsExactly("HTTP/1.1");
+    }
+
+    private void startUpstream(HttpProtocol... protocols) {
+        upstream = HttpServer.create()
+                .port(0)
+                .protocol(protocols)
+                .handle((request, response) -> {
+                    this.protocols.add(request.protocol());
+                    this.connections.add(request.remoteAddress());
+                    // Slow enough for all calls to be in flight together
+                    return Mono.delay(Duration.ofMillis(100))
+                            .then(response.header("Content-Type", "application/json")
+                                    .sendString(Mono.just("""
+                                            {"id": "1", "name": "Shirt", "price": 9.99, "availability": true}
+                                            """))
+                                    .then());
+                })
+                .bindNow();
+    }
+
+    private Flux<String> concurrentCalls(SimilarProductsApiProperties.Http2 http2) {
+        SimilarProductsApiProperties properties = new SimilarProductsApiProperties(
+                "http://localhost:" + upstream.port(), Duration.ofSeconds(5), null, null, null, http2, null, null);
+        connectionProvider = config.productDetailConnectionProvider(properties);
+        var webClient = config.productDetailWebClientBuilder(properties, connectionProvider,
+                        new DefaultListableBeanFactory().getBeanProvider(EventLoopGroup.class), new SimpleMeterRegistry())
+                .baseUrl(properties.baseUrl())
+                .build();
+
+        return Flux.range(1, CONCURRENT_CALLS)
+                .flatMap(i -> webClient.get().uri("/product/{id}", i).retrieve().bodyToMono(String.class));
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.similarityaggregator.integration;
+
+import com.example.similarityaggregator.application.port.in.GetSimilarProductsUseCase;
+import com.example.similarityaggregator.application.service.VirtualThreadGetSimilarProductsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webtestclient.autoconfigure.AutoConfigureWebTestClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+@ActiveProfiles("blocking")
+@TestPropertySource(properties = "spring.cache.type=none")
+class BlockingModeIntegrationTest {
+
+    private static MockWebServer mockWebServer;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    @Qualifier("similarProductsService")
+    private GetSimilarProductsUseCase getSimilarProductsUseCase;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start(3001);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should return similar products through the blocking stack")
+    void shouldReturnSimilarProductsThroughBlockingStack() {
+        // Given
+        dispatchByPath(Map.of(
+                "/product/1/similarids", json("[\"2\", \"3\", \"4\"]"),
+                "/product/2", json("""
+                        {"id": "2", "name": "Product 2", "price": 19.99, "availability": true}
+                        """),
+                "/product/3", new MockResponse().setResponseCode(404),
+                "/product/4", json("""
+                        {"id": "4", "name": "Product 4", "price": 39.99, "availability": false}
+                        """)));
+
+        // When & Then
+        webTestClient.get()
+                .uri("/product/1/similar")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].id").isEqualTo("2")
+                .jsonPath("$[1].id").isEqualTo("4");
+
+        assertThat(getSimilarProductsUseCase).isInstanceOf(VirtualThreadGetSimilarProductsService.class);
+        assertThat(meterRegistry.get("upstream.requests")
+                .tag("client", "product-detail")
+                .tag("uri", "/product/{productId}")
+                .tag("status", "200")
+                .timer()
+                .count()).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should return 404 when product not found")
+    void shouldReturn404WhenProductNotFound() {
+        // Given
+        mockWebServer.enqueue(new MockResponse().setResponseCode(404));
+
+        // When & Then
+        webTestClient.get()
+                .uri("/product/999/similar")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("Should flag the answer as partial when a detail fails upstream")
+    void shouldFlagPartialWhenDetailFails() {
+        // Given
+        dispatchByPath(Map.of(
+                "/product/1/similarids", json("[\"2\", \"3\"]"),
+                "/product/2", json("""
+                        {"id": "2", "name": "Product 2", "price": 19.99, "availability": true}
+                        """),
+                "/product/3", new MockResponse().setResponseCode(500)));
+
+        // When & Then
+        webTestClient.get()
+                .uri("/product/1/similar")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("X-Partial", "true")
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1);
+    }
+
+    private static MockResponse json(String body) {
+        return new MockResponse()
+                .setBody(body)
+                .addHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+    }
+
+    private void dispatchByPath(Map<String, MockResponse> responses) {
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return responses.getOrDefault(request.getPath(), new MockResponse().setResponseCode(404));
+            }
+        });
+    }
+}
@@ -1,8 +1,10 @@
 package com.example.similarityaggregator.integration;
 
 import com.example.similarityaggregator.infrastructure.rest.config.SimilarProductsApiProperties;
+import okhttp3.mockwebserver.Dispatcher;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -16,6 +18,7 @@ import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.reactive.server.WebTestClient;
 
 import java.io.IOException;
+import java.util.Map;
 
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -46,31 +49,30 @@ class GetSimilarProductsIntegrationTest {
     @DisplayName("Should return similar products - full flow")
     void shouldReturnSimilarProductsFullFlow() {
         // Given
-        mockWebServer.enqueue(new MockResponse()
-                .setBody("[\"2\", \"3\"]")
-                .addHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE));
-
-        mockWebServer.enqueue(new MockResponse()
-                .setBody("""
-                        {
-                            "id": "2",
-                            "name": "Product 2",
-                            "price": 19.99,
-                            "availability": true
-                        }
-                        """)
-                .addHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE));
-
-        mockWebServer.enqueue(new MockResponse()
-                .setBody("""
-                        {
-                            "id": "3",
-                            "name": "Product 3",
-                            "price": 29.99,
-                            "availability": false
-                        }
-                        """)
-                .addHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE));
+        dispatchByPath(Map.of(
+                "/product/1/similarids", new MockResponse()
+                        .setBody("[\"2\", \"3\"]")
+                        .addHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE),
+                "/product/2", new MockResponse()
+                        .setBody("""
+                                {
+                                    "id": "2",
+                                    "name": "Product 2",
+                                    "price": 19.99,
+                                    "availability": true
+                                }
+                                """)
+                        .addHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE),
+                "/product/3", new MockResponse()
+                        .setBody("""
+                                {
+                                    "id": "3",
+                                    "name": "Product 3",
+                                    "price": 29.99,
+                                    "availability": false
+                                }
+                                """)
+                        .addHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)));
 
         // When & Then
         webTestClient.get()
@@ -102,22 +104,21 @@ class GetSimilarProductsIntegrationTest {
     @DisplayName("Should skip failed product details")
     void shouldSkipFailedProductDetails() {
         // Given
-        mockWebServer.enqueue(new MockResponse()
-                .setBody("[\"2\", \"3\"]")
-                .addHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE));
-
-        mockWebServer.enqueue(new MockResponse()
-                .setBody("""
-                        {
-                            "id": "2",
-                            "name": "Product 2",
-                            "price": 19.99,
-                            "availability": true
-                        }
-                        """)
-                .addHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE));
-
-        mockWebServer.enqueue(new MockResponse().setResponseCode(404));
+        dispatchByPath(Map.of(
+                "/product/1/similarids", new MockResponse()
+                        .setBody("[\"2\", \"3\"]")
+                        .addHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE),
+                "/product/2", new MockResponse()
+                        .setBody("""
+                                {
+                                    "id": "2",
+                                    "name": "Product 2",
+                                    "price": 19.99,
+                                    "availability": true
+                                }
+                                """)
+                        .addHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE),
+                "/product/3", new MockResponse().setResponseCode(404)));
 
         // When & Then
         webTestClient.get()
@@ -129,5 +130,13 @@ class GetSimilarProductsIntegrationTest {
                 .jsonPath("$[0].id").isEqualTo("2");
     }
 
-
+    // Detail calls run concurrently, so responses are matched by path instead of arrival order
+    private void dispatchByPath(Map<String, MockResponse> responses) {
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return responses.getOrDefault(request.getPath(), new MockResponse().setResponseCode(404));
+            }
+        });
+    }
 }
\ No newline at end of file
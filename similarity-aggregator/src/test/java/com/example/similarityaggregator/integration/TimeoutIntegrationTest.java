@@ -1,7 +1,9 @@
 package com.example.similarityaggregator.integration;
 
+import com.example.similarityaggregator.infrastructure.cache.LastKnownGoodStore;
 import com.example.similarityaggregator.infrastructure.rest.config.SimilarProductsApiProperties;
 import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
@@ -29,6 +31,14 @@ class TimeoutIntegrationTest {
     @Autowired
     private SimilarProductsApiProperties properties;
 
+    @Autowired
+    private LastKnownGoodStore lastKnownGoodStore;
+
+    @BeforeEach
+    void setUp() {
+        lastKnownGoodStore.clear();
+    }
+
     @Test
     @DisplayName("Should timeout when similar ids API is slow")
     void shouldTimeoutWhenSimilarIdsApiIsSlow() {
@@ -1,5 +1,6 @@
 package com.example.similarityaggregator.unitTest.application.service;
 
+import com.example.similarityaggregator.application.context.ResponseQuality;
 import com.example.similarityaggregator.application.port.out.ProductDetailPort;
 import com.example.similarityaggregator.application.port.out.SimilarProductIdsPort;
 import com.example.similarityaggregator.application.service.GetSimilarProductsService;
@@ -9,15 +10,20 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 import reactor.test.StepVerifier;
 
 import java.math.BigDecimal;
 import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -27,7 +33,8 @@ class GetSimilarProductsServiceTest {
     private static final String EXISTING_PRODUCT_ID = "1";
     private static final String NON_EXISTING_PRODUCT_ID = "999";
 
-    @Mock
+    // Streaming goes through the port's default method, so stubbing getSimilarIds covers both paths
+    @Mock(answer = Answers.CALLS_REAL_METHODS)
     private SimilarProductIdsPort similarProductIdsPort;
 
     @Mock
@@ -37,7 +44,7 @@ class GetSimilarProductsServiceTest {
 
     @BeforeEach
     void setUp() {
-        service = new GetSimilarProductsService(similarProductIdsPort, productDetailPort);
+        service = new GetSimilarProductsService(similarProductIdsPort, productDetailPort, Duration.ofSeconds(2), 10);
     }
 
     @Test
@@ -61,6 +68,104 @@ class GetSimilarProductsServiceTest {
                 .verifyComplete();
     }
 
+    @Test
+    @DisplayName("Should stream each product as soon as the ones before it are available")
+    void shouldStreamProductsInOrderAsTheyArrive() {
+        // Given
+        Product product2 = new Product("2", "Product 2", new BigDecimal("19.99"), true);
+        Product product3 = new Product("3", "Product 3", new BigDecimal("29.99"), false);
+
+        when(similarProductIdsPort.getSimilarIds(EXISTING_PRODUCT_ID))
+                .thenReturn(Mono.just(List.of("2", "3")));
+        when(productDetailPort.getProductDetail("2"))
+                .thenReturn(Mono.just(product2));
+        when(productDetailPort.getProductDetail("3"))
+                .thenReturn(Mono.defer(() -> Mono.just(product3).delayElement(Duration.ofSeconds(5))));
+
+        // When & Then
+        StepVerifier.withVirtualTime(() -> service.streamSimilarProducts(EXISTING_PRODUCT_ID))
+                .expectSubscription()
+                .expectNext(product2)
+                .expectNoEvent(Duration.ofSeconds(4))
+                .thenAwait(Duration.ofSeconds(1))
+                .expectNext(product3)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should answer with the products fetched before the deadline and keep fetching the rest")
+    void shouldAnswerPartiallyWhenDeadlineIsReached() {
+        // Given
+        service = new GetSimilarProductsService(similarProductIdsPort, productDetailPort, Duration.ofMillis(200), 10);
+        Product product2 = new Product("2", "Product 2", new BigDecimal("19.99"), true);
+        Product product3 = new Product("3", "Product 3", new BigDecimal("29.99"), false);
+        AtomicBoolean lateProductFetched = new AtomicBoolean();
+        ResponseQuality quality = new ResponseQuality();
+
+        when(similarProductIdsPort.getSimilarIds(EXISTING_PRODUCT_ID))
+                .thenReturn(Mono.just(List.of("2", "3")));
+        when(productDetailPort.getProductDetail("2"))
+                .thenReturn(Mono.just(product2));
+        when(productDetailPort.getProductDetail("3"))
+                .thenReturn(Mono.just(product3)
+                        .delayElement(Duration.ofMillis(600))
+                        .doOnNext(product -> lateProductFetched.set(true)));
+
+        // When & Then
+        StepVerifier.create(service.getSimilarProducts(EXISTING_PRODUCT_ID).contextWrite(quality::writeTo))
+                .expectNext(List.of(product2))
+                .verifyComplete();
+
+        assertThat(quality.isPartial()).isTrue();
+        assertThat(lateProductFetched).isFalse();
+        await().atMost(Duration.ofSeconds(2)).untilTrue(lateProductFetched);
+    }
+
+    @Test
+    @DisplayName("Should keep the products fetched after a slow one when the deadline is reached")
+    void shouldKeepProductsAfterASlowOneWhenDeadlineIsReached() {
+        // Given
+        service = new GetSimilarProductsService(similarProductIdsPort, productDetailPort, Duration.ofMillis(200), 10);
+        Product product2 = new Product("2", "Product 2", new BigDecimal("19.99"), true);
+        Product product3 = new Product("3", "Product 3", new BigDecimal("29.99"), false);
+        Product product4 = new Product("4", "Product 4", new BigDecimal("39.99"), true);
+        ResponseQuality quality = new ResponseQuality();
+
+        when(similarProductIdsPort.getSimilarIds(EXISTING_PRODUCT_ID))
+                .thenReturn(Mono.just(List.of("2", "3", "4")));
+        when(productDetailPort.getProductDetail("2"))
+                .thenReturn(Mono.just(product2));
+        when(productDetailPort.getProductDetail("3"))
+                .thenReturn(Mono.just(product3).delayElement(Duration.ofMillis(600)));
+        when(productDetailPort.getProductDetail("4"))
+                .thenReturn(Mono.just(product4).delayElement(Duration.ofMillis(50)));
+
+        // When & Then
+        StepVerifier.create(service.getSimilarProducts(EXISTING_PRODUCT_ID).contextWrite(quality::writeTo))
+                .expectNext(List.of(product2, product4))
+                .verifyComplete();
+
+        assertThat(quality.isPartial()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should cancel the detail fetches of a stream whose client went away")
+    void shouldCancelFetchesWhenStreamIsCancelled() {
+        // Given
+        AtomicBoolean fetchCancelled = new AtomicBoolean();
+
+        when(similarProductIdsPort.getSimilarIds(EXISTING_PRODUCT_ID))
+                .thenReturn(Mono.just(List.of("2")));
+        when(productDetailPort.getProductDetail("2"))
+                .thenReturn(Mono.<Product>never().doOnCancel(() -> fetchCancelled.set(true)));
+
+        // When
+        service.streamSimilarProducts(EXISTING_PRODUCT_ID).subscribe().dispose();
+
+        // Then
+        assertThat(fetchCancelled).isTrue();
+    }
+
     @Test
     @DisplayName("Should return empty list when no similar products")
     void shouldReturnEmptyListWhenNoSimilarProducts() {
@@ -142,4 +247,73 @@ class GetSimilarProductsServiceTest {
 
         verify(productDetailPort, times(3)).getProductDetail(anyString());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should start fetching details before all similar ids are known")
+    void shouldFetchDetailsWhileSimilarIdsAreStreaming() {
+        // Given
+        Sinks.Many<String> similarIds = Sinks.many().unicast().onBackpressureBuffer();
+        Product p2 = new Product("2", "P2", new BigDecimal("10"), true);
+        Product p3 = new Product("3", "P3", new BigDecimal("20"), true);
+
+        doReturn(similarIds.asFlux()).when(similarProductIdsPort).streamSimilarIds(EXISTING_PRODUCT_ID);
+        when(productDetailPort.getProductDetail("2")).thenReturn(Mono.just(p2));
+        when(productDetailPort.getProductDetail("3")).thenReturn(Mono.just(p3));
+
+        // When & Then
+        StepVerifier.create(service.getSimilarProducts(EXISTING_PRODUCT_ID))
+                .then(() -> similarIds.tryEmitNext("2"))
+                .then(() -> verify(productDetailPort).getProductDetail("2"))
+                .then(() -> similarIds.tryEmitNext("3"))
+                .then(similarIds::tryEmitComplete)
+                .assertNext(products -> assertThat(products).containsExactly(p2, p3))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should fetch each detail once for a batch and keep every list in order")
+    void shouldFetchSharedDetailsOnceInBatch() {
+        // Given
+        Product p2 = new Product("2", "P2", new BigDecimal("10"), true);
+        Product p3 = new Product("3", "P3", new BigDecimal("20"), true);
+        Product p4 = new Product("4", "P4", new BigDecimal("30"), true);
+
+        when(similarProductIdsPort.getSimilarIds("1")).thenReturn(Mono.just(List.of("2", "3")));
+        when(similarProductIdsPort.getSimilarIds("5")).thenReturn(Mono.just(List.of("4", "3", "2")));
+        when(similarProductIdsPort.getSimilarIds(NON_EXISTING_PRODUCT_ID))
+                .thenReturn(Mono.error(new ProductNotFoundException(NON_EXISTING_PRODUCT_ID)));
+        when(productDetailPort.getProductDetail("2")).thenReturn(Mono.just(p2));
+        when(productDetailPort.getProductDetail("3")).thenReturn(Mono.just(p3));
+        when(productDetailPort.getProductDetail("4")).thenReturn(Mono.just(p4));
+
+        // When & Then
+        StepVerifier.create(service.getSimilarProducts(List.of("1", "5", NON_EXISTING_PRODUCT_ID, "1")))
+                .assertNext(products -> {
+                    assertThat(products).containsOnlyKeys("1", "5");
+                    assertThat(products.keySet()).containsExactly("1", "5");
+                    assertThat(products.get("1")).containsExactly(p2, p3);
+                    assertThat(products.get("5")).containsExactly(p4, p3, p2);
+                })
+                .verifyComplete();
+
+        verify(similarProductIdsPort, times(1)).getSimilarIds("1");
+        verify(productDetailPort, times(1)).getProductDetail("2");
+        verify(productDetailPort, times(1)).getProductDetail("3");
+        verify(productDetailPort, times(1)).getProductDetail("4");
+    }
+
+    @Test
+    @DisplayName("Should key batch details by the requested id even when the upstream answers with another")
+    void shouldKeyBatchDetailsByRequestedId() {
+        // Given - the upstream answers for "2" with a product whose id is written differently
+        Product p2 = new Product("02", "P2", new BigDecimal("10"), true);
+
+        when(similarProductIdsPort.getSimilarIds("1")).thenReturn(Mono.just(List.of("2")));
+        when(productDetailPort.getProductDetail("2")).thenReturn(Mono.just(p2));
+
+        // When & Then
+        StepVerifier.create(service.getSimilarProducts(List.of("1")))
+                .assertNext(products -> assertThat(products.get("1")).containsExactly(p2))
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.similarityaggregator.unitTest.application.service;
+
+import com.example.similarityaggregator.application.context.ResponseQuality;
+import com.example.similarityaggregator.application.port.out.BlockingProductDetailPort;
+import com.example.similarityaggregator.application.port.out.BlockingSimilarProductIdsPort;
+import com.example.similarityaggregator.application.service.VirtualThreadGetSimilarProductsService;
+import com.example.similarityaggregator.domain.exception.ProductNotFoundException;
+import com.example.similarityaggregator.domain.model.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class VirtualThreadGetSimilarProductsServiceTest {
+
+    private static final String EXISTING_PRODUCT_ID = "1";
+
+    @Mock
+    private BlockingSimilarProductIdsPort similarProductIdsPort;
+
+    @Mock
+    private BlockingProductDetailPort productDetailPort;
+
+    private ExecutorService virtualThreads;
+
+    @BeforeEach
+    void setUp() {
+        virtualThreads = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        virtualThreads.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should return similar products in similarity order, skipping unknown ones")
+    void shouldReturnSimilarProductsInOrder() {
+        // Given
+        Product product2 = new Product("2", "Product 2", new BigDecimal("19.99"), true);
+        Product product4 = new Product("4", "Product 4", new BigDecimal("39.99"), false);
+
+        when(similarProductIdsPort.getSimilarIds(EXISTING_PRODUCT_ID)).thenReturn(List.of("2", "3", "4"));
+        when(productDetailPort.getProductDetail("2")).thenAnswer(invocation -> {
+            Thread.sleep(50);
+            return Optional.of(product2);
+        });
+        when(productDetailPort.getProductDetail("3")).thenThrow(new ProductNotFoundException("3"));
+        when(productDetailPort.getProductDetail("4")).thenReturn(Optional.of(product4));
+
+        // When & Then
+        StepVerifier.create(service(Duration.ofSeconds(2)).getSimilarProducts(EXISTING_PRODUCT_ID))
+                .expectNext(List.of(product2, product4))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should answer with the products fetched before the deadline and flag the answer as partial")
+    void shouldAnswerPartiallyWhenDeadlineIsReached() {
+        // Given
+        Product product2 = new Product("2", "Product 2", new BigDecimal("19.99"), true);
+        Product product3 = new Product("3", "Product 3", new BigDecimal("29.99"), true);
+        ResponseQuality quality = new ResponseQuality();
+
+        when(similarProductIdsPort.getSimilarIds(EXISTING_PRODUCT_ID)).thenReturn(List.of("2", "3"));
+        when(productDetailPort.getProductDetail("2")).thenReturn(Optional.of(product2));
+        when(productDetailPort.getProductDetail("3")).thenAnswer(invocation -> {
+            Thread.sleep(5000);
+            return Optional.of(product3);
+        });
+
+        // When & Then
+        StepVerifier.create(service(Duration.ofMillis(200)).getSimilarProducts(EXISTING_PRODUCT_ID)
+                        .contextWrite(quality::writeTo))
+                .expectNext(List.of(product2))
+                .verifyComplete();
+
+        assertThat(quality.isPartial()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should keep the products fetched after a slow one when the deadline is reached")
+    void shouldKeepProductsAfterASlowOneWhenDeadlineIsReached() {
+        // Given
+        Product product2 = new Product("2", "Product 2", new BigDecimal("19.99"), true);
+        Product product3 = new Product("3", "Product 3", new BigDecimal("29.99"), true);
+        Product product4 = new Product("4", "Product 4", new BigDecimal("39.99"), false);
+        ResponseQuality quality = new ResponseQuality();
+
+        when(similarProductIdsPort.getSimilarIds(EXISTING_PRODUCT_ID)).thenReturn(List.of("2", "3", "4"));
+        when(productDetailPort.getProductDetail("2")).thenReturn(Optional.of(product2));
+        when(productDetailPort.getProductDetail("3")).thenAnswer(invocation -> {
+            Thread.sleep(5000);
+            return Optional.of(product3);
+        });
+        when(productDetailPort.getProductDetail("4")).thenAnswer(invocation -> {
+            Thread.sleep(50);
+            return Optional.of(product4);
+        });
+
+        // When & Then
+        StepVerifier.create(service(Duration.ofMillis(200)).getSimilarProducts(EXISTING_PRODUCT_ID)
+                        .contextWrite(quality::writeTo))
+                .expectNext(List.of(product2, product4))
+                .verifyComplete();
+
+        assertThat(quality.isPartial()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should propagate exception when product not found")
+    void shouldPropagateExceptionWhenProductNotFound() {
+        // Given
+        when(similarProductIdsPort.getSimilarIds("999")).thenThrow(new ProductNotFoundException("999"));
+
+        // When & Then
+        StepVerifier.create(service(Duration.ofSeconds(2)).getSimilarProducts("999"))
+                .expectError(ProductNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Should let the ports flag the answer from the threads the details are fetched on")
+    void shouldLetPortsFlagTheAnswer() {
+        // Given
+        ResponseQuality quality = new ResponseQuality();
+
+        when(similarProductIdsPort.getSimilarIds(EXISTING_PRODUCT_ID)).thenReturn(List.of("2"));
+        when(productDetailPort.getProductDetail("2")).thenAnswer(invocation -> {
+            ResponseQuality.flagDegraded();
+            return Optional.empty();
+        });
+
+        // When & Then
+        StepVerifier.create(service(Duration.ofSeconds(2)).getSimilarProducts(EXISTING_PRODUCT_ID)
+                        .contextWrite(quality::writeTo))
+                .expectNext(List.of())
+                .verifyComplete();
+
+        assertThat(quality.isDegraded()).isTrue();
+    }
+
+    private VirtualThreadGetSimilarProductsService service(Duration responseDeadline) {
+        return new VirtualThreadGetSimilarProductsService(similarProductIdsPort, productDetailPort, virtualThreads,
+                Schedulers.fromExecutorService(virtualThreads), responseDeadline);
+    }
+}
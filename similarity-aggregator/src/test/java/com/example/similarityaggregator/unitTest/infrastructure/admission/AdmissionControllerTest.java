@@ -0,0 +1,131 @@
+package com.example.similarityaggregator.unitTest.infrastructure.admission;
+
+import com.example.similarityaggregator.infrastructure.admission.AdmissionController;
+import com.example.similarityaggregator.infrastructure.admission.AdmissionProperties;
+import com.example.similarityaggregator.infrastructure.admission.AdmissionRejectedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionControllerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("Should queue requests over the limit and admit them as slots free up")
+    void shouldQueueRequestsOverTheLimit() {
+        // Given
+        AdmissionController controller = controller(1, 10, Duration.ofMillis(50), Duration.ofSeconds(5));
+        Sinks.One<String> first = Sinks.one();
+        List<String> results = new ArrayList<>();
+        controller.admit(first::asMono).subscribe(results::add);
+
+        // When
+        controller.admit(() -> Mono.just("second")).subscribe(results::add);
+
+        // Then
+        assertThat(controller.state().queued()).isEqualTo(1);
+        first.tryEmitValue("first");
+        assertThat(results).containsExactly("first", "second");
+        assertThat(controller.state().inFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject right away when the queue is full")
+    void shouldRejectWhenQueueIsFull() {
+        // Given
+        AdmissionController controller = controller(1, 0, Duration.ofMillis(50), Duration.ofSeconds(5));
+        controller.admit(Mono::never).subscribe();
+
+        // When & Then
+        StepVerifier.create(controller.admit(() -> Mono.just("rejected")))
+                .expectError(AdmissionRejectedException.class)
+                .verify();
+        assertThat(meterRegistry.get("admission.rejected").tag("reason", "queue_full").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should shed a queued request after one interval while the queue is not standing")
+    void shouldShedAfterIntervalWhenNotOverloaded() {
+        // Given
+        AdmissionController controller = controller(1, 10, Duration.ofMillis(50), Duration.ofMillis(300));
+        controller.admit(Mono::never).subscribe();
+
+        // When
+        Duration waited = StepVerifier.create(controller.admit(() -> Mono.just("shed")))
+                .expectError(AdmissionRejectedException.class)
+                .verify();
+
+        // Then
+        assertThat(waited).isGreaterThanOrEqualTo(Duration.ofMillis(300));
+        assertThat(controller.state().queued()).isZero();
+        assertThat(meterRegistry.get("admission.rejected").tag("reason", "queue_timeout").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should shed after the target delay once the queue has been standing for an interval")
+    void shouldShedAfterTargetWhenOverloaded() {
+        // Given - the first interval saw a request admitted without waiting, the second one only a
+        // request that waited the whole interval
+        AdmissionController controller = controller(1, 10, Duration.ofMillis(50), Duration.ofMillis(500));
+        controller.admit(Mono::never).subscribe();
+        for (int i = 0; i < 2; i++) {
+            StepVerifier.create(controller.admit(() -> Mono.just("shed")))
+                    .expectError(AdmissionRejectedException.class)
+                    .verify();
+        }
+        assertThat(controller.state().overloaded()).isTrue();
+
+        // When
+        Duration waited = StepVerifier.create(controller.admit(() -> Mono.just("shed sooner")))
+                .expectError(AdmissionRejectedException.class)
+                .verify();
+
+        // Then
+        assertThat(waited).isLessThan(Duration.ofMillis(300));
+    }
+
+    @Test
+    @DisplayName("Should not leak a slot when a queued request is cancelled")
+    void shouldNotLeakSlotOnCancelledRequest() {
+        // Given
+        AdmissionController controller = controller(1, 10, Duration.ofMillis(50), Duration.ofSeconds(5));
+        Sinks.One<String> first = Sinks.one();
+        controller.admit(first::asMono).subscribe();
+        Disposable queued = controller.admit(() -> Mono.just("never started")).subscribe();
+
+        // When
+        queued.dispose();
+        first.tryEmitValue("done");
+
+        // Then
+        StepVerifier.create(controller.admit(() -> Mono.just("next")))
+                .expectNext("next")
+                .verifyComplete();
+        assertThat(controller.state().inFlight()).isZero();
+        assertThat(controller.state().queued()).isZero();
+    }
+
+    private AdmissionController controller(int maxConcurrent, int maxQueued, Duration target, Duration interval) {
+        return new AdmissionController(new AdmissionProperties(true, maxConcurrent, maxQueued, target, interval,
+                Duration.ofSeconds(1)), meterRegistry);
+    }
+}
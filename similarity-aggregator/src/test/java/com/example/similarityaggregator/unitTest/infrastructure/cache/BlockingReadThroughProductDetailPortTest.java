@@ -0,0 +1,98 @@
+package com.example.similarityaggregator.unitTest.infrastructure.cache;
+
+import com.example.similarityaggregator.application.context.BlockingContext;
+import com.example.similarityaggregator.application.context.ResponseQuality;
+import com.example.similarityaggregator.domain.model.Product;
+import com.example.similarityaggregator.infrastructure.cache.BlockingReadThroughProductDetailPort;
+import com.example.similarityaggregator.infrastructure.coalescing.SingleFlight;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import reactor.util.context.Context;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BlockingReadThroughProductDetailPortTest {
+
+    private static final Product PRODUCT = new Product("2", "Product 2", new BigDecimal("19.99"), true);
+    private static final String STALE_PRODUCT_ID = "7";
+
+    private AtomicInteger calls;
+    private ConcurrentMapCache cache;
+    private BlockingReadThroughProductDetailPort port;
+
+    @BeforeEach
+    void setUp() {
+        calls = new AtomicInteger();
+        cache = new ConcurrentMapCache("productDetails");
+        port = new BlockingReadThroughProductDetailPort(productId -> {
+            calls.incrementAndGet();
+            if (STALE_PRODUCT_ID.equals(productId)) {
+                // What the circuit breaker fallback does when it serves the last known good value
+                ResponseQuality.flagDegraded();
+                return Optional.of(PRODUCT);
+            }
+            return "2".equals(productId) ? Optional.of(PRODUCT) : Optional.empty();
+        }, cache, new SingleFlight<>("product-detail", new SimpleMeterRegistry()));
+    }
+
+    @Test
+    @DisplayName("Should answer from the cache without calling the adapter")
+    void shouldAnswerFromCache() {
+        // Given
+        cache.put("2", PRODUCT);
+
+        // When
+        Optional<Product> product = port.getProductDetail("2");
+
+        // Then
+        assertThat(product).contains(PRODUCT);
+        assertThat(calls).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("Should load a missing product once and cache it")
+    void shouldLoadAndCacheMissingProduct() {
+        // When
+        port.getProductDetail("2");
+        Optional<Product> product = port.getProductDetail("2");
+
+        // Then
+        assertThat(product).contains(PRODUCT);
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Should not cache a product the adapter could not answer with")
+    void shouldNotCacheEmptyAnswers() {
+        // When
+        port.getProductDetail("3");
+        port.getProductDetail("3");
+
+        // Then
+        assertThat(cache.get("3")).isNull();
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should serve a last known good product without caching it and flag the request degraded")
+    void shouldNotCacheLastKnownGoodProduct() {
+        // Given
+        ResponseQuality quality = new ResponseQuality();
+
+        // When
+        Optional<Product> product = BlockingContext.callWith(quality.writeTo(Context.empty()),
+                () -> port.getProductDetail(STALE_PRODUCT_ID));
+
+        // Then
+        assertThat(product).contains(PRODUCT);
+        assertThat(cache.get(STALE_PRODUCT_ID)).isNull();
+        assertThat(quality.isDegraded()).isTrue();
+    }
+}
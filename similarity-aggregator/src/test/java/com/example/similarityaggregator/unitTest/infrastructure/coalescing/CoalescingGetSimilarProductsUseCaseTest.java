@@ -0,0 +1,149 @@
+package com.example.similarityaggregator.unitTest.infrastructure.coalescing;
+
+import com.example.similarityaggregator.application.context.ResponseQuality;
+import com.example.similarityaggregator.application.port.in.GetSimilarProductsUseCase;
+import com.example.similarityaggregator.domain.model.Product;
+import com.example.similarityaggregator.infrastructure.cache.CachePolicyProperties;
+import com.example.similarityaggregator.infrastructure.cache.ResponseCache;
+import com.example.similarityaggregator.infrastructure.cache.ResponseDependencies;
+import com.example.similarityaggregator.infrastructure.coalescing.CoalescingGetSimilarProductsUseCase;
+import com.example.similarityaggregator.infrastructure.coalescing.SingleFlight;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CoalescingGetSimilarProductsUseCaseTest {
+
+    private static final List<Product> PRODUCTS = List.of(
+            new Product("2", "Product 2", new BigDecimal("19.99"), true));
+
+    private GetSimilarProductsUseCase delegate;
+    private CoalescingGetSimilarProductsUseCase useCase;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(GetSimilarProductsUseCase.class);
+        useCase = new CoalescingGetSimilarProductsUseCase(delegate,
+                new SingleFlight<>("similar-products", new SimpleMeterRegistry()));
+    }
+
+    @Test
+    @DisplayName("Should run one aggregation for concurrent requests of the same product")
+    void shouldShareOneAggregation() {
+        // Given
+        AtomicInteger aggregations = new AtomicInteger();
+        Sinks.One<List<Product>> aggregation = Sinks.one();
+        when(delegate.getSimilarProducts("1")).thenReturn(Mono.defer(() -> {
+            aggregations.incrementAndGet();
+            return aggregation.asMono();
+        }));
+
+        // When
+        List<List<Product>> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            useCase.getSimilarProducts("1").subscribe(results::add);
+        }
+        aggregation.tryEmitValue(PRODUCTS);
+
+        // Then
+        assertThat(aggregations).hasValue(1);
+        assertThat(results).containsExactly(PRODUCTS, PRODUCTS, PRODUCTS);
+    }
+
+    @Test
+    @DisplayName("Should flag every request sharing a partial aggregation")
+    void shouldFlagEveryRequestSharingPartialAggregation() {
+        // Given
+        Sinks.One<List<Product>> aggregation = Sinks.one();
+        when(delegate.getSimilarProducts("1")).thenReturn(ResponseQuality.markPartial(aggregation.asMono()));
+        ResponseQuality first = new ResponseQuality();
+        ResponseQuality second = new ResponseQuality();
+
+        // When
+        useCase.getSimilarProducts("1").contextWrite(first::writeTo).subscribe();
+        useCase.getSimilarProducts("1").contextWrite(second::writeTo).subscribe();
+        aggregation.tryEmitValue(PRODUCTS);
+
+        // Then
+        assertThat(first.isPartial()).isTrue();
+        assertThat(second.isPartial()).isTrue();
+        assertThat(first.isDegraded()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should keep the aggregation running until every request sharing it has cancelled")
+    void shouldCancelAggregationOnlyWhenEveryRequestCancelled() {
+        // Given
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Sinks.One<List<Product>> aggregation = Sinks.one();
+        when(delegate.getSimilarProducts("1"))
+                .thenReturn(aggregation.asMono().doOnCancel(() -> cancelled.set(true)));
+        Disposable first = useCase.getSimilarProducts("1").subscribe();
+        Disposable second = useCase.getSimilarProducts("1").subscribe();
+
+        // When & Then
+        first.dispose();
+        assertThat(cancelled).isFalse();
+
+        second.dispose();
+        assertThat(cancelled).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should hand what the aggregation read to the response cache of every request")
+    void shouldHandDependenciesToEveryRequest() {
+        // Given
+        ResponseCache responseCache = new ResponseCache(
+                new CachePolicyProperties.ResponsePolicy(100, Duration.ofMinutes(1)), new SimpleMeterRegistry());
+        Sinks.One<List<Product>> aggregation = Sinks.one();
+        when(delegate.getSimilarProducts("1"))
+                .thenReturn(ResponseDependencies.record("productDetail", "2", aggregation.asMono()));
+        ResponseDependencies first = responseCache.begin();
+        ResponseDependencies second = responseCache.begin();
+
+        useCase.getSimilarProducts("1").contextWrite(first::writeTo).subscribe();
+        useCase.getSimilarProducts("1").contextWrite(second::writeTo).subscribe();
+        aggregation.tryEmitValue(PRODUCTS);
+        responseCache.put("1", new byte[]{1}, second);
+
+        // When
+        responseCache.onChange("productDetail", "2");
+
+        // Then
+        assertThat(responseCache.get("1")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should start a new aggregation once the previous one completed")
+    void shouldNotShareCompletedAggregation() {
+        // Given
+        AtomicInteger aggregations = new AtomicInteger();
+        when(delegate.getSimilarProducts("1")).thenReturn(Mono.fromCallable(() -> {
+            aggregations.incrementAndGet();
+            return PRODUCTS;
+        }));
+
+        // When
+        StepVerifier.create(useCase.getSimilarProducts("1")).expectNext(PRODUCTS).verifyComplete();
+        StepVerifier.create(useCase.getSimilarProducts("1")).expectNext(PRODUCTS).verifyComplete();
+
+        // Then
+        assertThat(aggregations).hasValue(2);
+    }
+}
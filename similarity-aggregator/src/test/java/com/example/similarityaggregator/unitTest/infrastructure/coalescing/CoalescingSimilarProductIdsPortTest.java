@@ -0,0 +1,92 @@
+package com.example.similarityaggregator.unitTest.infrastructure.coalescing;
+
+import com.example.similarityaggregator.application.port.out.SimilarProductIdsPort;
+import com.example.similarityaggregator.infrastructure.coalescing.CoalescingSimilarProductIdsPort;
+import com.example.similarityaggregator.infrastructure.coalescing.SingleFlight;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CoalescingSimilarProductIdsPortTest {
+
+    private AtomicInteger streams;
+    private AtomicInteger lists;
+    private Sinks.Many<String> upstreamIds;
+    private Sinks.One<List<String>> upstreamList;
+    private CoalescingSimilarProductIdsPort port;
+
+    @BeforeEach
+    void setUp() {
+        streams = new AtomicInteger();
+        lists = new AtomicInteger();
+        upstreamIds = Sinks.many().unicast().onBackpressureBuffer();
+        upstreamList = Sinks.one();
+        SimilarProductIdsPort upstream = new SimilarProductIdsPort() {
+            @Override
+            public Mono<List<String>> getSimilarIds(String productId) {
+                lists.incrementAndGet();
+                return upstreamList.asMono();
+            }
+
+            @Override
+            public Flux<String> streamSimilarIds(String productId) {
+                streams.incrementAndGet();
+                return upstreamIds.asFlux();
+            }
+        };
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        port = new CoalescingSimilarProductIdsPort(upstream, new SingleFlight<>("similar-ids", meterRegistry),
+                new SingleFlight<>("similar-ids-stream", meterRegistry));
+    }
+
+    @Test
+    @DisplayName("Should share one upstream stream between concurrent streams and replay it to late joiners")
+    void shouldShareConcurrentStreams() {
+        // Given - more concurrent streams than the per-product bulkhead would let through
+        List<List<String>> received = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            List<String> ids = new ArrayList<>();
+            received.add(ids);
+            port.streamSimilarIds("1").subscribe(ids::add);
+        }
+        upstreamIds.tryEmitNext("2");
+        List<String> late = new ArrayList<>();
+        port.streamSimilarIds("1").subscribe(late::add);
+
+        // When
+        upstreamIds.tryEmitNext("3");
+        upstreamIds.tryEmitComplete();
+
+        // Then
+        assertThat(streams).hasValue(1);
+        assertThat(received).allSatisfy(ids -> assertThat(ids).containsExactly("2", "3"));
+        assertThat(late).containsExactly("2", "3");
+    }
+
+    @Test
+    @DisplayName("Should stream from the list already being loaded for the same product")
+    void shouldJoinListInFlight() {
+        // Given
+        port.getSimilarIds("1").subscribe();
+
+        // When & Then
+        StepVerifier.create(port.streamSimilarIds("1"))
+                .then(() -> upstreamList.tryEmitValue(List.of("2", "3")))
+                .expectNext("2", "3")
+                .verifyComplete();
+
+        assertThat(lists).hasValue(1);
+        assertThat(streams).hasValue(0);
+    }
+}
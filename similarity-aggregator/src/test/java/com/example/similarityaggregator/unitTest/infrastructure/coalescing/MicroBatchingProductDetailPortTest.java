@@ -0,0 +1,206 @@
+package com.example.similarityaggregator.unitTest.infrastructure.coalescing;
+
+import com.example.similarityaggregator.application.context.ResponseQuality;
+import com.example.similarityaggregator.application.port.out.ProductDetailPort;
+import com.example.similarityaggregator.domain.exception.ProductNotFoundException;
+import com.example.similarityaggregator.domain.model.Product;
+import com.example.similarityaggregator.infrastructure.coalescing.MicroBatchingProductDetailPort;
+import com.example.similarityaggregator.infrastructure.rest.config.SimilarProductsApiProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class MicroBatchingProductDetailPortTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RecordingPort upstream;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        upstream = new RecordingPort();
+    }
+
+    @Test
+    @DisplayName("Should load the ids requested within the window as one deduplicated batch")
+    void shouldLoadRequestsWithinWindowAsOneBatch() {
+        // Given
+        MicroBatchingProductDetailPort port = port(Duration.ofMillis(50), 100);
+
+        // When & Then
+        StepVerifier.create(Mono.zip(port.getProductDetail("1"), port.getProductDetail("2"),
+                        port.getProductDetail("1")))
+                .assertNext(products -> {
+                    assertThat(products.getT1().id()).isEqualTo("1");
+                    assertThat(products.getT2().id()).isEqualTo("2");
+                    assertThat(products.getT3().id()).isEqualTo("1");
+                })
+                .verifyComplete();
+
+        assertThat(upstream.batches).containsExactly(List.of("1", "2"));
+        assertThat(upstream.calls).containsExactly("1", "2");
+        assertThat(meterRegistry.get("product.detail.batch.size").summary().totalAmount()).isEqualTo(2);
+        assertThat(meterRegistry.get("product.detail.batch.dedup.ratio").summary().max())
+                .isEqualTo(1.0 / 3, within(0.001));
+    }
+
+    @Test
+    @DisplayName("Should load a batch right away once it reaches the size threshold")
+    void shouldLoadFullBatchRightAway() {
+        // Given
+        MicroBatchingProductDetailPort port = port(Duration.ofMinutes(1), 2);
+
+        // When & Then
+        StepVerifier.create(Mono.zip(port.getProductDetail("1"), port.getProductDetail("2")))
+                .expectNextCount(1)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        assertThat(upstream.calls).containsExactly("1", "2");
+    }
+
+    @Test
+    @DisplayName("Should complete empty for products missing from the batch")
+    void shouldCompleteEmptyForMissingProducts() {
+        // Given
+        MicroBatchingProductDetailPort port = port(Duration.ofMillis(10), 100);
+
+        // When & Then
+        StepVerifier.create(port.getProductDetail("999"))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should flag only the callers of the product that failed to load")
+    void shouldKeepQualityFlagsPerProduct() {
+        // Given
+        upstream.failingProductId = "2";
+        MicroBatchingProductDetailPort port = port(Duration.ofMillis(10), 100);
+        ResponseQuality healthy = new ResponseQuality();
+        ResponseQuality failed = new ResponseQuality();
+
+        // When
+        StepVerifier.create(Mono.zip(
+                        port.getProductDetail("1").contextWrite(healthy::writeTo),
+                        port.getProductDetail("2").contextWrite(failed::writeTo).hasElement()))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        // Then
+        assertThat(healthy.isPartial()).isFalse();
+        assertThat(failed.isPartial()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should answer empty the ids a bulk load leaves out or fails on")
+    void shouldAnswerEmptyWhenBulkLoadLeavesIdsOut() {
+        // Given
+        upstream.bulkError = true;
+        MicroBatchingProductDetailPort port = port(Duration.ofMillis(10), 100);
+        ResponseQuality quality = new ResponseQuality();
+
+        // When & Then
+        StepVerifier.create(port.getProductDetail("1").contextWrite(quality::writeTo))
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+
+        assertThat(quality.isPartial()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should answer with the product even when the upstream normalises its id")
+    void shouldResolveByRequestedId() {
+        // Given
+        upstream.normalisedIds = true;
+        MicroBatchingProductDetailPort port = port(Duration.ofMillis(10), 100);
+
+        // When & Then
+        StepVerifier.create(port.getProductDetail("01"))
+                .expectNextMatches(product -> product.id().equals("1"))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should answer cached products without joining a batch")
+    void shouldAnswerCacheHitsWithoutBatching() {
+        // Given
+        ConcurrentMapCache cache = new ConcurrentMapCache("product-detail");
+        Product cached = new Product("1", "Cached", BigDecimal.ONE, true);
+        cache.put("1", cached);
+        MicroBatchingProductDetailPort port = new MicroBatchingProductDetailPort(upstream, cache,
+                new SimilarProductsApiProperties.Batching(true, Duration.ofMinutes(1), 100), meterRegistry);
+
+        // When & Then
+        StepVerifier.create(port.getProductDetail("1"))
+                .expectNext(cached)
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+
+        assertThat(upstream.calls).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should answer each caller as soon as its own product is loaded")
+    void shouldNotWaitForSlowestProductOfBatch() {
+        // Given
+        upstream.slowProductId = "2";
+        MicroBatchingProductDetailPort port = port(Duration.ofMillis(10), 100);
+        port.getProductDetail("2").subscribe();
+
+        // When & Then
+        StepVerifier.create(port.getProductDetail("1"))
+                .expectNextMatches(product -> product.id().equals("1"))
+                .expectComplete()
+                .verify(Duration.ofSeconds(2));
+    }
+
+    private MicroBatchingProductDetailPort port(Duration window, int maxSize) {
+        return new MicroBatchingProductDetailPort(upstream, null,
+                new SimilarProductsApiProperties.Batching(true, window, maxSize), meterRegistry);
+    }
+
+    private static final class RecordingPort implements ProductDetailPort {
+
+        final List<List<String>> batches = new CopyOnWriteArrayList<>();
+        final List<String> calls = new CopyOnWriteArrayList<>();
+        boolean bulkError;
+        String failingProductId;
+        String slowProductId;
+        boolean normalisedIds;
+
+        @Override
+        public Mono<Product> getProductDetail(String productId) {
+            calls.add(productId);
+            if (productId.equals(failingProductId)) {
+                return Mono.error(new IllegalStateException("upstream down"));
+            }
+            if (productId.equals("999")) {
+                return Mono.error(new ProductNotFoundException(productId));
+            }
+            String id = normalisedIds ? String.valueOf(Integer.parseInt(productId)) : productId;
+            Mono<Product> product = Mono.just(new Product(id, "Product " + id, BigDecimal.TEN, true));
+            return productId.equals(slowProductId) ? product.delayElement(Duration.ofSeconds(30)) : product;
+        }
+
+        @Override
+        public Flux<Detail> getProductDetails(Collection<String> productIds) {
+            batches.add(List.copyOf(productIds));
+            return bulkError ? Flux.error(new IllegalStateException("bulk endpoint down"))
+                    : ProductDetailPort.super.getProductDetails(productIds);
+        }
+    }
+}
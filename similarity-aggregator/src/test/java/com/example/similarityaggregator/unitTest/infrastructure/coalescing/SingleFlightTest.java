@@ -0,0 +1,174 @@
+package com.example.similarityaggregator.unitTest.infrastructure.coalescing;
+
+import com.example.similarityaggregator.domain.exception.ProductNotFoundException;
+import com.example.similarityaggregator.infrastructure.coalescing.SingleFlight;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+class SingleFlightTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SingleFlight<String, String> singleFlight;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight<>("test", meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should share one in-flight call between concurrent subscribers")
+    void shouldShareInFlightCall() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        Sinks.One<String> upstream = Sinks.one();
+
+        Mono<String> first = singleFlight.execute("1", () -> {
+            calls.incrementAndGet();
+            return upstream.asMono();
+        });
+        Mono<String> second = singleFlight.execute("1", () -> {
+            calls.incrementAndGet();
+            return upstream.asMono();
+        });
+
+        // When
+        StepVerifier.create(Mono.zip(first, second))
+                .then(() -> upstream.tryEmitValue("value"))
+                .assertNext(result -> {
+                    assertThat(result.getT1()).isEqualTo("value");
+                    assertThat(result.getT2()).isEqualTo("value");
+                })
+                .verifyComplete();
+
+        // Then
+        assertThat(calls).hasValue(1);
+        assertThat(countOf("originated")).isEqualTo(1);
+        assertThat(countOf("coalesced")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should propagate the shared error to every subscriber")
+    void shouldShareErrors() {
+        // Given
+        Sinks.One<String> upstream = Sinks.one();
+
+        Mono<String> first = singleFlight.execute("5", upstream::asMono);
+        Mono<String> second = singleFlight.execute("5", upstream::asMono);
+
+        // When & Then
+        StepVerifier.create(Mono.when(first, second))
+                .then(() -> upstream.tryEmitError(new ProductNotFoundException("5")))
+                .expectError(ProductNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Should start a new call once the previous one has completed")
+    void shouldStartNewCallAfterCompletion() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            StepVerifier.create(singleFlight.execute("1", () -> Mono.fromSupplier(() -> "call-" + calls.incrementAndGet())))
+                    .expectNextCount(1)
+                    .verifyComplete();
+        }
+
+        // Then
+        assertThat(calls).hasValue(3);
+        assertThat(countOf("coalesced")).isZero();
+    }
+
+    @Test
+    @DisplayName("Should keep the call running while other subscribers remain")
+    void shouldKeepCallWhileSubscribersRemain() {
+        // Given
+        AtomicInteger cancellations = new AtomicInteger();
+        Sinks.One<String> upstream = Sinks.one();
+        Mono<String> call = upstream.asMono().doOnCancel(cancellations::incrementAndGet);
+
+        var disconnected = singleFlight.execute("1", () -> call).subscribe();
+
+        // When
+        StepVerifier.create(singleFlight.execute("1", () -> call))
+                .then(disconnected::dispose)
+                .then(() -> upstream.tryEmitValue("value"))
+                .expectNext("value")
+                .verifyComplete();
+
+        // Then
+        assertThat(cancellations).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("Should let blocking callers wait for the call of the first one")
+    void shouldShareBlockingCall() throws Exception {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> singleFlight.executeBlocking("1", () -> {
+                calls.incrementAndGet();
+                awaitQuietly(release);
+                return "value";
+            }), threads);
+            await().until(() -> calls.get() == 1);
+            CompletableFuture<String> second = CompletableFuture.supplyAsync(
+                    () -> singleFlight.executeBlocking("1", () -> "call-" + calls.incrementAndGet()), threads);
+            await().until(() -> countOf("coalesced") == 1);
+
+            // When
+            release.countDown();
+
+            // Then
+            assertThat(first.get()).isEqualTo("value");
+            assertThat(second.get()).isEqualTo("value");
+        }
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Should rethrow the error of a blocking call and start a new one afterwards")
+    void shouldRethrowBlockingErrors() {
+        // When & Then
+        assertThatThrownBy(() -> singleFlight.executeBlocking("5", () -> {
+            throw new ProductNotFoundException("5");
+        })).isInstanceOf(ProductNotFoundException.class);
+
+        assertThat(singleFlight.executeBlocking("5", () -> "value")).isEqualTo("value");
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private double countOf(String outcome) {
+        return meterRegistry.get("single.flight.calls")
+                .tag("name", "test")
+                .tag("outcome", outcome)
+                .counter()
+                .count();
+    }
+}
@@ -1,9 +1,11 @@
 package com.example.similarityaggregator.unitTest.infrastructure.rest.adapter.in;
 
 
+import com.example.similarityaggregator.application.context.ResponseQuality;
 import com.example.similarityaggregator.application.port.in.GetSimilarProductsUseCase;
 import com.example.similarityaggregator.domain.exception.ProductNotFoundException;
 import com.example.similarityaggregator.domain.model.Product;
+import com.example.similarityaggregator.infrastructure.admission.AdmissionRejectedException;
 import com.example.similarityaggregator.infrastructure.rest.adapter.in.SimilarProductsController;
 import com.example.similarityaggregator.infrastructure.rest.adapter.in.dto.ProductResponse;
 import org.junit.jupiter.api.DisplayName;
@@ -11,12 +13,19 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.cache.autoconfigure.CacheAutoConfiguration;
 import org.springframework.boot.webflux.test.autoconfigure.WebFluxTest;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
 
 import static org.mockito.Mockito.when;
 
@@ -54,6 +63,109 @@ class SimilarProductsControllerTest {
                 .contains(new ProductResponse("2", "Product 2", new BigDecimal("19.99"), true));
     }
 
+    @Test
+    @DisplayName("Should stream similar products as NDJSON")
+    void shouldStreamSimilarProductsAsNdjson() {
+        // Given
+        String productId = "1";
+
+        when(getSimilarProductsUseCase.streamSimilarProducts(productId))
+                .thenReturn(Flux.just(
+                        new Product("2", "Product 2", new BigDecimal("19.99"), true),
+                        new Product("3", "Product 3", new BigDecimal("29.99"), false)));
+
+        // When & Then
+        webTestClient.get()
+                .uri("/product/{productId}/similar", productId)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(ProductResponse.class)
+                .getResponseBody()
+                .as(StepVerifier::create)
+                .expectNext(new ProductResponse("2", "Product 2", new BigDecimal("19.99"), true))
+                .expectNext(new ProductResponse("3", "Product 3", new BigDecimal("29.99"), false))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should stream similar products as server-sent events")
+    void shouldStreamSimilarProductsAsServerSentEvents() {
+        // Given
+        String productId = "1";
+
+        when(getSimilarProductsUseCase.streamSimilarProducts(productId))
+                .thenReturn(Flux.just(new Product("2", "Product 2", new BigDecimal("19.99"), true)));
+
+        // When & Then
+        webTestClient.get()
+                .uri("/product/{productId}/similar", productId)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM)
+                .returnResult(ProductResponse.class)
+                .getResponseBody()
+                .as(StepVerifier::create)
+                .expectNext(new ProductResponse("2", "Product 2", new BigDecimal("19.99"), true))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should flag degraded responses")
+    void shouldFlagDegradedResponses() {
+        // Given
+        String productId = "1";
+        List<Product> products = List.of(
+                new Product("2", "Product 2", new BigDecimal("19.99"), true)
+        );
+
+        when(getSimilarProductsUseCase.getSimilarProducts(productId))
+                .thenReturn(ResponseQuality.markDegraded(Mono.just(products)));
+
+        // When & Then
+        webTestClient.get()
+                .uri("/product/{productId}/similar", productId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(SimilarProductsController.DEGRADED_HEADER, "true");
+    }
+
+    @Test
+    @DisplayName("Should flag partial responses")
+    void shouldFlagPartialResponses() {
+        // Given
+        String productId = "1";
+
+        when(getSimilarProductsUseCase.getSimilarProducts(productId))
+                .thenReturn(ResponseQuality.markPartial(Mono.just(List.of())));
+
+        // When & Then
+        webTestClient.get()
+                .uri("/product/{productId}/similar", productId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(SimilarProductsController.PARTIAL_HEADER, "true");
+    }
+
+    @Test
+    @DisplayName("Should not flag fresh responses as degraded")
+    void shouldNotFlagFreshResponses() {
+        // Given
+        String productId = "1";
+
+        when(getSimilarProductsUseCase.getSimilarProducts(productId))
+                .thenReturn(Mono.just(List.of()));
+
+        // When & Then
+        webTestClient.get()
+                .uri("/product/{productId}/similar", productId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(SimilarProductsController.DEGRADED_HEADER);
+    }
+
     @Test
     @DisplayName("Should return 404 if product not found")
     void shouldReturnNotFound() {
@@ -69,4 +181,85 @@ class SimilarProductsControllerTest {
                 .exchange()
                 .expectStatus().isNotFound();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should return similar products of several products keyed by product id")
+    void shouldReturnSimilarProductsInBatch() {
+        // Given
+        List<String> productIds = List.of("1", "5");
+        Product product2 = new Product("2", "Product 2", new BigDecimal("19.99"), true);
+        Map<String, List<Product>> products = new LinkedHashMap<>();
+        products.put("1", List.of(product2));
+        products.put("5", List.of());
+
+        when(getSimilarProductsUseCase.getSimilarProducts(productIds))
+                .thenReturn(Mono.just(products));
+
+        // When & Then
+        webTestClient.post()
+                .uri("/product/similar")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(productIds)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$['1'][0].id").isEqualTo("2")
+                .jsonPath("$['5']").isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should reject an empty batch")
+    void shouldRejectEmptyBatch() {
+        // When & Then
+        webTestClient.post()
+                .uri("/product/similar")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(List.of())
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    @DisplayName("Should reject a batch with a null product id")
+    void shouldRejectBatchWithNullProductId() {
+        // When & Then
+        webTestClient.post()
+                .uri("/product/similar")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("[\"1\", null]")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    @DisplayName("Should reject a batch larger than the maximum")
+    void shouldRejectOversizedBatch() {
+        // Given
+        List<String> productIds = IntStream.rangeClosed(0, SimilarProductsController.MAX_BATCH_SIZE)
+                .mapToObj(String::valueOf)
+                .toList();
+
+        // When & Then
+        webTestClient.post()
+                .uri("/product/similar")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(productIds)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    @DisplayName("Should return 503 with Retry-After when the request is shed")
+    void shouldReturnServiceUnavailableWhenShed() {
+        // Given
+        when(getSimilarProductsUseCase.getSimilarProducts("1"))
+                .thenReturn(Mono.error(new AdmissionRejectedException("queue full", Duration.ofSeconds(2))));
+
+        // When & Then
+        webTestClient.get()
+                .uri("/product/{productId}/similar", "1")
+                .exchange()
+                .expectStatus().isEqualTo(503)
+                .expectHeader().valueEquals("Retry-After", "2");
+    }
+}
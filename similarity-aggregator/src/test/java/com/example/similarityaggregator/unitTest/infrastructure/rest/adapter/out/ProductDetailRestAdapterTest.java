@@ -2,13 +2,23 @@ package com.example.similarityaggregator.unitTest.infrastructure.rest.adapter.ou
 
 import com.example.similarityaggregator.domain.exception.ProductNotFoundException;
 import com.example.similarityaggregator.domain.model.Product;
+import com.example.similarityaggregator.infrastructure.cache.CachePolicyProperties;
+import com.example.similarityaggregator.infrastructure.cache.LastKnownGoodStore;
+import com.example.similarityaggregator.infrastructure.cache.NotFoundCache;
 import com.example.similarityaggregator.infrastructure.rest.adapter.out.ProductDetailRestAdapter;
+import com.example.similarityaggregator.infrastructure.rest.bulkhead.KeyedBulkhead;
+import com.example.similarityaggregator.infrastructure.rest.config.SimilarProductsApiProperties;
+import com.example.similarityaggregator.infrastructure.rest.hedging.RequestHedger;
+import com.example.similarityaggregator.infrastructure.rest.limiter.AdaptiveConcurrencyLimiter;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.cache.support.NoOpCacheManager;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -17,6 +27,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.time.Duration;
 
 class ProductDetailRestAdapterTest {
 
@@ -32,7 +43,16 @@ class ProductDetailRestAdapterTest {
         mockWebServer.start();
 
         String baseUrl = mockWebServer.url("/").toString();
-        adapter = new ProductDetailRestAdapter(WebClient.builder(), baseUrl);
+        adapter = new ProductDetailRestAdapter(WebClient.builder(), baseUrl,
+                new NotFoundCache(new NoOpCacheManager()),
+                new LastKnownGoodStore(new CachePolicyProperties.LastKnownGoodPolicy(100, Duration.ofMinutes(1)),
+                        new SimpleMeterRegistry()),
+                new RequestHedger("product-detail", SimilarProductsApiProperties.Hedging.DISABLED,
+                        new SimpleMeterRegistry()),
+                new AdaptiveConcurrencyLimiter("product-detail", SimilarProductsApiProperties.ConcurrencyLimit.DISABLED,
+                        new SimpleMeterRegistry()),
+                BulkheadRegistry.ofDefaults(),
+                new KeyedBulkhead("product-detail", 4, new SimpleMeterRegistry()));
     }
 
     @AfterEach
@@ -1,19 +1,30 @@
 package com.example.similarityaggregator.unitTest.infrastructure.rest.adapter.out;
 
 import com.example.similarityaggregator.domain.exception.ProductNotFoundException;
+import com.example.similarityaggregator.infrastructure.cache.CachePolicyProperties;
+import com.example.similarityaggregator.infrastructure.cache.LastKnownGoodStore;
+import com.example.similarityaggregator.infrastructure.cache.NotFoundCache;
 import com.example.similarityaggregator.infrastructure.rest.adapter.out.SimilarProductIdsRestAdapter;
+import com.example.similarityaggregator.infrastructure.rest.bulkhead.KeyedBulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.test.StepVerifier;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -32,8 +43,7 @@ class SimilarProductIdsRestAdapterTest {
         mockWebServer = new MockWebServer();
         mockWebServer.start();
 
-        String baseUrl = mockWebServer.url("/").toString();
-        adapter = new SimilarProductIdsRestAdapter(WebClient.builder(), baseUrl);
+        adapter = adapter(new NoOpCacheManager());
     }
 
     @AfterEach
@@ -94,6 +104,75 @@ class SimilarProductIdsRestAdapterTest {
                 .verifyComplete();
     }
 
+    @Test
+    @DisplayName("Should stream similar product ids in order")
+    void shouldStreamSimilarProductIdsInOrder() {
+        // Given
+        enqueueSuccessResponse("[\"2\", \"3\", \"4\"]");
+
+        // When & Then
+        StepVerifier.create(adapter.streamSimilarIds(EXISTING_PRODUCT_ID))
+                .expectNext("2", "3", "4")
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should stream numeric similar product ids as strings")
+    void shouldStreamNumericSimilarProductIds() {
+        // Given
+        enqueueSuccessResponse("[2, 3, 4]");
+
+        // When & Then
+        StepVerifier.create(adapter.streamSimilarIds(EXISTING_PRODUCT_ID))
+                .expectNext("2", "3", "4")
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should throw ProductNotFoundException when streaming a 404")
+    void shouldThrowProductNotFoundExceptionWhenStreaming404() {
+        // Given
+        enqueueNotFoundResponse();
+
+        // When & Then
+        StepVerifier.create(adapter.streamSimilarIds(NON_EXISTING_PRODUCT_ID))
+                .expectError(ProductNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Should cache the streamed ids once the stream completes")
+    void shouldCacheStreamedIdsOnCompletion() {
+        // Given
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+        SimilarProductIdsRestAdapter cachingAdapter = adapter(cacheManager);
+        enqueueSuccessResponse("[\"2\", \"3\", \"4\"]");
+
+        StepVerifier.create(cachingAdapter.streamSimilarIds(EXISTING_PRODUCT_ID))
+                .expectNext("2", "3", "4")
+                .verifyComplete();
+
+        // When & Then
+        StepVerifier.create(cachingAdapter.streamSimilarIds(EXISTING_PRODUCT_ID))
+                .expectNext("2", "3", "4")
+                .verifyComplete();
+
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(1);
+        Cache.ValueWrapper cached = cacheManager.getCache(SimilarProductIdsRestAdapter.CACHE_NAME).get(EXISTING_PRODUCT_ID);
+        assertThat(cached).isNotNull();
+        assertThat((List<?>) cached.get()).isEqualTo(SIMILAR_IDS);
+    }
+
+    private SimilarProductIdsRestAdapter adapter(CacheManager cacheManager) {
+        String baseUrl = mockWebServer.url("/").toString();
+        return new SimilarProductIdsRestAdapter(WebClient.builder(), baseUrl, cacheManager,
+                new NotFoundCache(new NoOpCacheManager()),
+                new LastKnownGoodStore(new CachePolicyProperties.LastKnownGoodPolicy(100, Duration.ofMinutes(1)),
+                        new SimpleMeterRegistry()),
+                BulkheadRegistry.ofDefaults(),
+                new KeyedBulkhead("similar-ids", 4, new SimpleMeterRegistry()));
+    }
+
     private void enqueueSuccessResponse(String body) {
         mockWebServer.enqueue(new MockResponse()
                 .setBody(body)
@@ -0,0 +1,75 @@
+package com.example.similarityaggregator.unitTest.infrastructure.rest.bulkhead;
+
+import com.example.similarityaggregator.infrastructure.rest.bulkhead.KeyedBulkhead;
+import com.example.similarityaggregator.infrastructure.rest.bulkhead.KeyedBulkheadFullException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeyedBulkheadTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private KeyedBulkhead bulkhead;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        bulkhead = new KeyedBulkhead("test", 2, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should reject calls over the cap for the same key only")
+    void shouldRejectCallsOverTheCapForSameKey() {
+        // Given
+        bulkhead.limit("1", () -> Sinks.<String>one().asMono()).subscribe();
+        bulkhead.limit("1", () -> Sinks.<String>one().asMono()).subscribe();
+
+        // When & Then
+        StepVerifier.create(bulkhead.limit("1", () -> Mono.just("third")))
+                .expectError(KeyedBulkheadFullException.class)
+                .verify();
+        StepVerifier.create(bulkhead.limit("2", () -> Mono.just("other")))
+                .expectNext("other")
+                .verifyComplete();
+
+        assertThat(meterRegistry.get("keyed.bulkhead.rejections").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should release the slot when a call completes")
+    void shouldReleaseSlotOnCompletion() {
+        // Given
+        Sinks.One<String> first = Sinks.one();
+        bulkhead.limit("1", first::asMono).subscribe();
+        bulkhead.limit("1", () -> Sinks.<String>one().asMono()).subscribe();
+
+        // When
+        first.tryEmitValue("done");
+
+        // Then
+        StepVerifier.create(bulkhead.limit("1", () -> Mono.just("next")))
+                .expectNext("next")
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should release the slot and forget the key when a call is cancelled")
+    void shouldReleaseSlotOnCancel() {
+        // Given
+        Disposable call = bulkhead.limit("1", () -> Sinks.<String>one().asMono()).subscribe();
+        assertThat(meterRegistry.get("keyed.bulkhead.keys").gauge().value()).isEqualTo(1);
+
+        // When
+        call.dispose();
+
+        // Then
+        assertThat(meterRegistry.get("keyed.bulkhead.keys").gauge().value()).isZero();
+    }
+}
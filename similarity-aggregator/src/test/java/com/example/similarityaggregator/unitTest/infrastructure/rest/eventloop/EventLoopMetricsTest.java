@@ -0,0 +1,92 @@
+package com.example.similarityaggregator.unitTest.infrastructure.rest.eventloop;
+
+import com.example.similarityaggregator.infrastructure.rest.eventloop.EventLoopMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.channel.EventLoopGroup;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventLoopMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private LoopResources loopResources;
+    private EventLoopGroup eventLoopGroup;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        loopResources = LoopResources.create("test", 1, true);
+        eventLoopGroup = loopResources.onClient(false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        loopResources.disposeLater().block(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("Should record the delay of a loop kept busy by a blocking task")
+    void shouldRecordLatencyOfBusyLoop() throws InterruptedException {
+        // Given
+        EventLoopMetrics metrics = new EventLoopMetrics("test", eventLoopGroup, Duration.ofMillis(10), meterRegistry);
+
+        // When
+        eventLoopGroup.execute(() -> sleep(300));
+        Thread.sleep(500);
+        metrics.close();
+
+        // Then
+        assertThat(meterRegistry.get("netty.eventloop.latency").tag("group", "test").timer()
+                .max(TimeUnit.MILLISECONDS)).isGreaterThan(200);
+    }
+
+    @Test
+    @DisplayName("Should publish the tasks waiting behind a busy loop")
+    void shouldPublishPendingTasks() throws InterruptedException {
+        // Given
+        EventLoopMetrics metrics = new EventLoopMetrics("test", eventLoopGroup, Duration.ofSeconds(1), meterRegistry);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        eventLoopGroup.execute(() -> {
+            started.countDown();
+            await(release);
+        });
+        started.await(5, TimeUnit.SECONDS);
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            eventLoopGroup.execute(() -> { });
+        }
+
+        // Then
+        assertThat(meterRegistry.get("netty.eventloop.pending.tasks").tag("group", "test").tag("loop", "0")
+                .gauge().value()).isEqualTo(5);
+        release.countDown();
+        metrics.close();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.similarityaggregator.unitTest.infrastructure.rest.filter;
+
+import com.example.similarityaggregator.infrastructure.rest.filter.RestClientTimingInterceptor;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RestClientTimingInterceptorTest {
+
+    private MockWebServer mockWebServer;
+    private SimpleMeterRegistry meterRegistry;
+    private RestClient restClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+        meterRegistry = new SimpleMeterRegistry();
+        restClient = RestClient.builder()
+                .baseUrl(mockWebServer.url("/").toString())
+                .requestInterceptor(new RestClientTimingInterceptor("product-detail", meterRegistry))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should time calls by URI template rather than by expanded URL")
+    void shouldTimeCallsByUriTemplate() {
+        // Given
+        mockWebServer.enqueue(new MockResponse().setBody("{}"));
+        mockWebServer.enqueue(new MockResponse().setBody("{}"));
+
+        // When
+        for (String productId : new String[]{"1", "2"}) {
+            restClient.get().uri("/product/{productId}", productId)
+                    .retrieve()
+                    .toBodilessEntity();
+        }
+
+        // Then
+        Timer timer = meterRegistry.get("upstream.requests")
+                .tag("client", "product-detail")
+                .tag("uri", "/product/{productId}")
+                .tag("status", "200")
+                .tag("outcome", "SUCCESS")
+                .timer();
+        assertThat(timer.count()).isEqualTo(2);
+        assertThat(meterRegistry.get("upstream.requests").timers()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should tag upstream error statuses with their outcome")
+    void shouldTagErrorStatuses() {
+        // Given
+        mockWebServer.enqueue(new MockResponse().setResponseCode(404));
+
+        // When
+        assertThatThrownBy(() -> restClient.get().uri("/product/{productId}/similarids", "999")
+                .retrieve()
+                .toBodilessEntity());
+
+        // Then
+        assertThat(meterRegistry.get("upstream.requests")
+                .tag("uri", "/product/{productId}/similarids")
+                .tag("status", "404")
+                .tag("outcome", "CLIENT_ERROR")
+                .timer()
+                .count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should tag connection failures as IO errors")
+    void shouldTagConnectionFailures() throws IOException {
+        // Given
+        mockWebServer.shutdown();
+
+        // When
+        assertThatThrownBy(() -> restClient.get().uri("/product/{productId}", "1")
+                .retrieve()
+                .toBodilessEntity());
+
+        // Then
+        assertThat(meterRegistry.get("upstream.requests")
+                .tag("status", "IO_ERROR")
+                .timer()
+                .count()).isEqualTo(1);
+    }
+}
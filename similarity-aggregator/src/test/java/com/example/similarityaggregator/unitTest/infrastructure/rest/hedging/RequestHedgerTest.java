@@ -0,0 +1,151 @@
+package com.example.similarityaggregator.unitTest.infrastructure.rest.hedging;
+
+import com.example.similarityaggregator.infrastructure.rest.config.SimilarProductsApiProperties;
+import com.example.similarityaggregator.infrastructure.rest.hedging.RequestHedger;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestHedgerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("Should answer with the hedge when the first call is slow")
+    void shouldAnswerWithHedgeWhenFirstCallIsSlow() {
+        // Given
+        RequestHedger hedger = hedger(100);
+        AtomicInteger calls = new AtomicInteger();
+
+        // When & Then
+        StepVerifier.withVirtualTime(() -> hedger.hedge(() -> Mono.defer(() -> calls.incrementAndGet() == 1
+                        ? Mono.just("slow").delayElement(Duration.ofSeconds(5))
+                        : Mono.just("fast").delayElement(Duration.ofMillis(50)))))
+                .expectSubscription()
+                .thenAwait(Duration.ofMillis(250))
+                .expectNext("fast")
+                .verifyComplete();
+
+        assertThat(calls).hasValue(2);
+        assertThat(meterRegistry.get("upstream.hedge.wins").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not hedge calls that finish before the delay")
+    void shouldNotHedgeFastCalls() {
+        // Given
+        RequestHedger hedger = hedger(100);
+        AtomicInteger calls = new AtomicInteger();
+
+        // When & Then
+        StepVerifier.withVirtualTime(() -> hedger.hedge(() -> Mono.defer(() -> {
+                    calls.incrementAndGet();
+                    return Mono.just("fast").delayElement(Duration.ofMillis(50));
+                })))
+                .thenAwait(Duration.ofMillis(50))
+                .expectNext("fast")
+                .verifyComplete();
+
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Should stop hedging once the budget is spent")
+    void shouldStopHedgingOverBudget() {
+        // Given - each call earns half a hedge
+        RequestHedger hedger = hedger(50);
+        AtomicInteger calls = new AtomicInteger();
+
+        // When
+        for (int i = 0; i < 2; i++) {
+            StepVerifier.withVirtualTime(() -> hedger.hedge(() -> Mono.defer(() -> {
+                        calls.incrementAndGet();
+                        return Mono.just("slow").delayElement(Duration.ofSeconds(1));
+                    })))
+                    .thenAwait(Duration.ofSeconds(1))
+                    .expectNext("slow")
+                    .verifyComplete();
+        }
+
+        // Then - the first call had no budget yet, the second one had a whole hedge
+        assertThat(calls).hasValue(3);
+        assertThat(meterRegistry.get("upstream.hedge.requests").tag("result", "over_budget").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not let a failing hedge hide a successful first call")
+    void shouldIgnoreFailingHedge() {
+        // Given
+        RequestHedger hedger = hedger(100);
+        AtomicInteger calls = new AtomicInteger();
+
+        // When & Then
+        StepVerifier.withVirtualTime(() -> hedger.hedge(() -> Mono.defer(() -> calls.incrementAndGet() == 1
+                        ? Mono.just("slow").delayElement(Duration.ofMillis(500))
+                        : Mono.<String>error(new IllegalStateException("boom")))))
+                .thenAwait(Duration.ofMillis(500))
+                .expectNext("slow")
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should sample the slow call a hedge beat, so the delay does not drift down")
+    void shouldSampleCancelledSlowCalls() {
+        // Given - every other call is slow and gets beaten by its hedge
+        RequestHedger hedger = new RequestHedger("test", new SimilarProductsApiProperties.Hedging(
+                true, 0.9, Duration.ofMillis(100), Duration.ofMillis(10), 10, 100), meterRegistry);
+        AtomicInteger calls = new AtomicInteger();
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            StepVerifier.create(hedger.hedge(() -> Mono.defer(() -> calls.incrementAndGet() % 2 == 1
+                            ? Mono.just("slow").delayElement(Duration.ofSeconds(1))
+                            : Mono.just("fast").delayElement(Duration.ofMillis(20)))))
+                    .expectNext("fast")
+                    .expectComplete()
+                    .verify(Duration.ofSeconds(5));
+        }
+
+        // Then - the beaten calls count with at least the time they had taken
+        assertThat(meterRegistry.get("upstream.hedge.delay").gauge().value()).isGreaterThanOrEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("Should leave the time a call waits for admission out of its latency")
+    void shouldNotSampleAdmissionTime() {
+        // Given
+        RequestHedger hedger = new RequestHedger("test", new SimilarProductsApiProperties.Hedging(
+                true, 0.9, Duration.ofSeconds(10), Duration.ofMillis(10), 10, 0), meterRegistry);
+
+        // When - every call queues 200ms before a 5ms exchange
+        for (int i = 0; i < 10; i++) {
+            StepVerifier.create(hedger.hedge(() -> Mono.just("value").delayElement(Duration.ofMillis(5)),
+                            exchange -> Mono.delay(Duration.ofMillis(200)).then(exchange)))
+                    .expectNext("value")
+                    .expectComplete()
+                    .verify(Duration.ofSeconds(5));
+        }
+
+        // Then
+        assertThat(meterRegistry.get("upstream.hedge.delay").gauge().value()).isLessThan(100);
+    }
+
+    private RequestHedger hedger(double budget) {
+        return new RequestHedger("test", new SimilarProductsApiProperties.Hedging(
+                true, 0.95, Duration.ofMillis(200), Duration.ofMillis(10), 100, budget), meterRegistry);
+    }
+}
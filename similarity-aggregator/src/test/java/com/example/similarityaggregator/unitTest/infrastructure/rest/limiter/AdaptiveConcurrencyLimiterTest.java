@@ -0,0 +1,135 @@
+package com.example.similarityaggregator.unitTest.infrastructure.rest.limiter;
+
+import com.example.similarityaggregator.infrastructure.rest.config.SimilarProductsApiProperties;
+import com.example.similarityaggregator.infrastructure.rest.limiter.AdaptiveConcurrencyLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("Should queue calls over the limit and release them in order")
+    void shouldQueueCallsOverTheLimit() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = limiter(2);
+        AtomicInteger started = new AtomicInteger();
+        List<Sinks.One<String>> responses = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            responses.add(Sinks.one());
+        }
+
+        // When
+        List<String> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Sinks.One<String> response = responses.get(i);
+            limiter.limit(() -> {
+                started.incrementAndGet();
+                return response.asMono();
+            }).subscribe(results::add);
+        }
+
+        // Then
+        assertThat(started).hasValue(2);
+        assertThat(meterRegistry.get("upstream.limiter.queued").gauge().value()).isEqualTo(1);
+
+        responses.get(0).tryEmitValue("first");
+        assertThat(started).hasValue(3);
+
+        responses.get(1).tryEmitValue("second");
+        responses.get(2).tryEmitValue("third");
+        assertThat(results).containsExactly("first", "second", "third");
+        assertThat(meterRegistry.get("upstream.limiter.in.flight").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should shrink the limit when calls get much slower than usual")
+    void shouldShrinkLimitOnSlowCalls() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = limiter(10);
+        for (int i = 0; i < 5; i++) {
+            StepVerifier.create(limiter.limit(() -> Mono.delay(Duration.ofMillis(5))))
+                    .expectNextCount(1)
+                    .verifyComplete();
+        }
+        double before = limiter.currentLimit();
+
+        // When
+        StepVerifier.create(limiter.limit(() -> Mono.delay(Duration.ofMillis(200))))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        // Then
+        assertThat(limiter.currentLimit()).isLessThan(before);
+    }
+
+    @Test
+    @DisplayName("Should let in as many queued calls as the limit grows by")
+    void shouldReleaseQueuedCallsWhenLimitGrows() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = limiter(2);
+        AtomicInteger started = new AtomicInteger();
+        List<Sinks.One<String>> responses = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Sinks.One<String> response = Sinks.one();
+            responses.add(response);
+            limiter.limit(() -> {
+                started.incrementAndGet();
+                return response.asMono();
+            }).subscribe();
+        }
+        assertThat(started).hasValue(2);
+
+        // When - a fast call with the limit fully used grows it from 2 to 3
+        responses.get(0).tryEmitValue("first");
+
+        // Then - the freed permit and the new one both go to the queue
+        assertThat(limiter.currentLimit()).isEqualTo(3);
+        assertThat(started).hasValue(4);
+        assertThat(meterRegistry.get("upstream.limiter.queued").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should not leak a permit when a queued call is cancelled")
+    void shouldNotLeakPermitOnCancelledWaiter() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = limiter(1);
+        Sinks.One<String> first = Sinks.one();
+        limiter.limit(first::asMono).subscribe();
+        Disposable queued = limiter.limit(() -> Mono.just("never started")).subscribe();
+
+        // When
+        queued.dispose();
+        first.tryEmitValue("done");
+
+        // Then
+        StepVerifier.create(limiter.limit(() -> Mono.just("next")))
+                .expectNext("next")
+                .verifyComplete();
+        assertThat(meterRegistry.get("upstream.limiter.in.flight").gauge().value()).isZero();
+    }
+
+    private AdaptiveConcurrencyLimiter limiter(int initialLimit) {
+        return new AdaptiveConcurrencyLimiter("test", new SimilarProductsApiProperties.ConcurrencyLimit(
+                true, initialLimit, 1, 100, 2.0, 0.9), meterRegistry);
+    }
+}